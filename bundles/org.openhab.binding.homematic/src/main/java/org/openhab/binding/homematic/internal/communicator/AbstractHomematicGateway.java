@@ -23,8 +23,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +39,7 @@ import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
+import org.openhab.binding.homematic.internal.communicator.client.RpcStatistics;
 import org.openhab.binding.homematic.internal.communicator.client.TransferMode;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.XmlRpcClient;
@@ -96,6 +101,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
 
     protected HomematicConfig config;
     protected HttpClient httpClient;
+    private final ParamsetDescriptionCache paramsetDescriptionCache;
     private final String id;
     private final HomematicGatewayAdapter gatewayAdapter;
     private final DelayedExecuter sendDelayedExecutor = new DelayedExecuter();
@@ -106,7 +112,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<String, HmDevice>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<HmInterface, TransferMode>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<VirtualDatapointHandler>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
@@ -134,11 +140,12 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     }
 
     public AbstractHomematicGateway(String id, HomematicConfig config, HomematicGatewayAdapter gatewayAdapter,
-            HttpClient httpClient) {
+            HttpClient httpClient, ParamsetDescriptionCache paramsetDescriptionCache) {
         this.id = id;
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
         this.httpClient = httpClient;
+        this.paramsetDescriptionCache = paramsetDescriptionCache;
     }
 
     @Override
@@ -370,9 +377,12 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         cancelLoadAllMetadata = false;
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
+        String gatewayVersion = config.getGatewayInfo().getType() + ":" + config.getGatewayInfo().getFirmware();
 
         // loading datapoints for all channels
         Set<String> loadedDevices = new HashSet<String>();
+        List<HmDevice> preparedDevices = new ArrayList<HmDevice>();
+        Set<String> channelIds = new HashSet<String>();
         Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<String, Collection<HmDatapoint>>();
         for (HmDevice device : deviceDescriptions) {
             if (!cancelLoadAllMetadata) {
@@ -393,7 +403,16 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                             } else {
                                 String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
                                         channel.getDevice().getFirmware(), channel.getNumber());
+                                channelIds.add(channelId);
                                 Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                                if (cachedDatapoints == null) {
+                                    // descriptions persisted by a previous run
+                                    cachedDatapoints = paramsetDescriptionCache.get(channelId, channel,
+                                            gatewayVersion);
+                                    if (cachedDatapoints != null) {
+                                        datapointsByChannelIdCache.put(channelId, cachedDatapoints);
+                                    }
+                                }
                                 if (cachedDatapoints != null) {
                                     // clone all datapoints
                                     cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
@@ -406,6 +425,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                                     // the data point set might change depending on the selected mode.
                                     if (!channel.isReconfigurable()) {
                                         datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                                        paramsetDescriptionCache.put(channelId, channel, channel.getDatapoints(),
+                                                gatewayVersion);
                                     }
                                 }
                             }
@@ -413,19 +434,76 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     }
                     prepareDevice(device);
                     loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
+                    preparedDevices.add(device);
                 } catch (IOException ex) {
                     logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
                             ex.getMessage());
                 }
             }
         }
+
+        loadMaintenanceChannelValues(preparedDevices);
+        for (HmDevice device : preparedDevices) {
+            if (!cancelLoadAllMetadata) {
+                gatewayAdapter.onDeviceLoaded(device);
+            }
+        }
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
+            paramsetDescriptionCache.retainAll(channelIds);
         }
         initialized = true;
     }
 
+    /**
+     * Loads the values of channel 0 of all devices in parallel, with one worker per connection of each interface.
+     * The things need these values for their status, so the devices are handed to the gateway adapter afterwards
+     * without a blocking request for each one.
+     */
+    private void loadMaintenanceChannelValues(Collection<HmDevice> devices) {
+        Map<HmInterface, Queue<HmChannel>> channelsByInterface = new HashMap<HmInterface, Queue<HmChannel>>();
+        for (HmDevice device : devices) {
+            HmChannel channel = device.getChannel(0);
+            if (!device.isGatewayExtras() && channel != null && !channel.isInitialized()) {
+                channelsByInterface.computeIfAbsent(device.getHmInterface(), i -> new ConcurrentLinkedQueue<>())
+                        .add(channel);
+            }
+        }
+
+        List<Future<?>> workers = new ArrayList<Future<?>>();
+        for (Entry<HmInterface, Queue<HmChannel>> entry : channelsByInterface.entrySet()) {
+            Queue<HmChannel> channels = entry.getValue();
+            int connections = availableInterfaces.get(entry.getKey()) == TransferMode.BIN_RPC
+                    ? Math.max(1, config.getSocketMaxConnections())
+                    : 1;
+            for (int i = 0; i < connections; i++) {
+                workers.add(scheduler.submit(() -> {
+                    HmChannel channel;
+                    while (!cancelLoadAllMetadata && (channel = channels.poll()) != null) {
+                        try {
+                            loadChannelValues(channel);
+                        } catch (IOException ex) {
+                            // the thing handler loads the values again when the thing is initialized
+                            logger.debug("Can't load values of channel {} of device '{}': {}", channel.getNumber(),
+                                    channel.getDevice().getAddress(), ex.getMessage());
+                        }
+                    }
+                }));
+            }
+        }
+
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                logger.warn("Loading channel values from gateway '{}' failed: {}", id, ex.getMessage(), ex);
+            }
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -926,6 +1004,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                 } catch (IOException e) {
                     logger.debug("Could not read the duty cycle ratio: {}", e.getMessage());
                 }
+                logRpcStatistics();
             } catch (IOException ex) {
                 try {
                     handleInvalidConnection("IOException " + ex.getMessage());
@@ -950,6 +1029,17 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             }
         }
 
+        private void logRpcStatistics() {
+            if (logger.isDebugEnabled()) {
+                for (RpcClient<?> rpcClient : rpcClients.values()) {
+                    for (Entry<String, RpcStatistics> entry : rpcClient.getStatistics().entrySet()) {
+                        logger.debug("RPC statistics of interface {} on gateway '{}': {}", entry.getKey(), id,
+                                entry.getValue());
+                    }
+                }
+            }
+        }
+
         private void connectionConfirmed() {
             if (connectionLost) {
                 connectionLost = false;
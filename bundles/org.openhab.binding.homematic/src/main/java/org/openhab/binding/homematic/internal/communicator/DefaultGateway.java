@@ -29,8 +29,8 @@ import org.openhab.binding.homematic.internal.model.HmDevice;
 public class DefaultGateway extends AbstractHomematicGateway {
 
     protected DefaultGateway(String id, HomematicConfig config, HomematicGatewayAdapter gatewayAdapter,
-            HttpClient httpClient) {
-        super(id, config, gatewayAdapter, httpClient);
+            HttpClient httpClient, ParamsetDescriptionCache paramsetDescriptionCache) {
+        super(id, config, gatewayAdapter, httpClient, paramsetDescriptionCache);
     }
 
     @Override
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.smarthome.core.storage.Storage;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of the paramset descriptions of device channels, keyed by device type, firmware and channel
+ * number. An entry is only returned if the channel type and the gateway version still match, so a firmware update of
+ * the device or the gateway reloads the descriptions from the gateway.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+
+    private final Storage<ChannelDescription> storage;
+
+    public ParamsetDescriptionCache(Storage<ChannelDescription> storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the cached datapoints for the given channel id or null, if there is no valid entry.
+     */
+    public List<HmDatapoint> get(String channelId, HmChannel channel, String gatewayVersion) {
+        ChannelDescription description = storage.get(channelId);
+        if (description == null || description.datapoints == null
+                || !StringUtils.equals(description.channelType, channel.getType())
+                || !StringUtils.equals(description.gatewayVersion, gatewayVersion)) {
+            return null;
+        }
+        try {
+            List<HmDatapoint> datapoints = new ArrayList<>(description.datapoints.size());
+            for (DatapointDescription dpDescription : description.datapoints) {
+                datapoints.add(dpDescription.toDatapoint());
+            }
+            return datapoints;
+        } catch (RuntimeException ex) {
+            logger.debug("Ignoring invalid paramset description cache entry '{}': {}", channelId, ex.getMessage());
+            storage.remove(channelId);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the datapoints of the given channel, virtual datapoints are skipped.
+     */
+    public void put(String channelId, HmChannel channel, Collection<HmDatapoint> datapoints, String gatewayVersion) {
+        ChannelDescription description = new ChannelDescription();
+        description.channelType = channel.getType();
+        description.gatewayVersion = gatewayVersion;
+        description.datapoints = new ArrayList<>(datapoints.size());
+        for (HmDatapoint dp : datapoints) {
+            if (!dp.isVirtual()) {
+                description.datapoints.add(new DatapointDescription(dp));
+            }
+        }
+        storage.put(channelId, description);
+    }
+
+    /**
+     * Removes all entries which are not in the given set of channel ids.
+     */
+    public void retainAll(Set<String> channelIds) {
+        for (String channelId : new ArrayList<>(storage.getKeys())) {
+            if (!channelIds.contains(channelId)) {
+                logger.trace("Removing unused paramset description cache entry '{}'", channelId);
+                storage.remove(channelId);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (String channelId : new ArrayList<>(storage.getKeys())) {
+            storage.remove(channelId);
+        }
+    }
+
+    /**
+     * The cached paramset descriptions of a channel.
+     */
+    public static class ChannelDescription {
+        private String channelType;
+        private String gatewayVersion;
+        private List<DatapointDescription> datapoints;
+    }
+
+    /**
+     * The cached description of one datapoint. Values of arbitrary type are stored with a type prefix, so they are
+     * restored with the same Java type as loaded from the gateway.
+     */
+    public static class DatapointDescription {
+        private String name;
+        private String description;
+        private HmValueType type;
+        private HmParamsetType paramsetType;
+        private String minValue;
+        private String maxValue;
+        private String step;
+        private String defaultValue;
+        private String[] options;
+        private boolean readOnly;
+        private boolean readable;
+        private boolean trigger;
+        private String info;
+        private String unit;
+
+        public DatapointDescription() {
+        }
+
+        private DatapointDescription(HmDatapoint dp) {
+            name = dp.getName();
+            description = dp.getDescription();
+            type = dp.getType();
+            paramsetType = dp.getParamsetType();
+            minValue = encode(dp.getMinValue());
+            maxValue = encode(dp.getMaxValue());
+            step = encode(dp.getStep());
+            defaultValue = encode(dp.getDefaultValue());
+            options = dp.getOptions();
+            readOnly = dp.isReadOnly();
+            readable = dp.isReadable();
+            trigger = dp.isTrigger();
+            info = dp.getInfo();
+            unit = dp.getUnit();
+        }
+
+        private HmDatapoint toDatapoint() {
+            HmDatapoint dp = new HmDatapoint(name, description, type, null, readOnly, paramsetType);
+            dp.setMinValue((Number) decode(minValue));
+            dp.setMaxValue((Number) decode(maxValue));
+            dp.setStep((Number) decode(step));
+            dp.setDefaultValue(decode(defaultValue));
+            dp.setOptions(options);
+            dp.setReadable(readable);
+            dp.setTrigger(trigger);
+            dp.setInfo(info);
+            dp.setUnit(unit);
+            return dp;
+        }
+
+        private static String encode(Object value) {
+            if (value == null) {
+                return null;
+            } else if (value instanceof Integer) {
+                return "I:" + value;
+            } else if (value instanceof Long) {
+                return "L:" + value;
+            } else if (value instanceof Float) {
+                return "F:" + value;
+            } else if (value instanceof Number) {
+                return "D:" + ((Number) value).doubleValue();
+            } else if (value instanceof Boolean) {
+                return "B:" + value;
+            } else {
+                return "S:" + value;
+            }
+        }
+
+        private static Object decode(String value) {
+            if (value == null) {
+                return null;
+            }
+            String content = value.substring(2);
+            switch (value.charAt(0)) {
+                case 'I':
+                    return Integer.valueOf(content);
+                case 'L':
+                    return Long.valueOf(content);
+                case 'F':
+                    return Float.valueOf(content);
+                case 'D':
+                    return Double.valueOf(content);
+                case 'B':
+                    return Boolean.valueOf(content);
+                case 'S':
+                    return content;
+                default:
+                    throw new IllegalArgumentException("Unknown value type in '" + value + "'");
+            }
+        }
+    }
+}
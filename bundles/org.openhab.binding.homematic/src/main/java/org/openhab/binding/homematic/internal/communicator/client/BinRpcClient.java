@@ -14,6 +14,9 @@ package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
@@ -32,6 +35,8 @@ public class BinRpcClient extends RpcClient<byte[]> {
     private final Logger logger = LoggerFactory.getLogger(BinRpcClient.class);
 
     private SocketHandler socketHandler;
+    private final Map<Integer, RpcStatistics> statisticsPerPort = new ConcurrentHashMap<>();
+    private final Map<Integer, HmInterface> interfacesPerPort = new ConcurrentHashMap<>();
 
     public BinRpcClient(HomematicConfig config) {
         super(config);
@@ -55,34 +60,56 @@ public class BinRpcClient extends RpcClient<byte[]> {
 
     @Override
     public void init(HmInterface hmInterface, String clientId) throws IOException {
+        interfacesPerPort.put(config.getRpcPort(hmInterface), hmInterface);
         super.init(hmInterface, clientId);
         socketHandler.removeSocket(config.getRpcPort(hmInterface));
     }
 
+    @Override
+    public Map<String, RpcStatistics> getStatistics() {
+        Map<String, RpcStatistics> statistics = new HashMap<>();
+        for (Map.Entry<Integer, RpcStatistics> entry : statisticsPerPort.entrySet()) {
+            HmInterface hmInterface = interfacesPerPort.get(entry.getKey());
+            statistics.put(hmInterface == null ? String.valueOf(entry.getKey()) : hmInterface.toString(),
+                    entry.getValue());
+        }
+        return statistics;
+    }
+
     /**
-     * Sends a BIN-RPC message and parses the response to see if there was an error.
+     * Sends a BIN-RPC message and parses the response to see if there was an error. Messages to different ports are
+     * sent in parallel, the connections per port are limited by the {@link SocketHandler}.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
-        return sendMessage(port, request, 0);
+        RpcStatistics statistics = statisticsPerPort.computeIfAbsent(port, p -> new RpcStatistics());
+        long start = System.currentTimeMillis();
+        boolean failed = true;
+        try {
+            Object[] result = sendMessage(port, request, 0, statistics);
+            failed = false;
+            return result;
+        } finally {
+            statistics.requestFinished(System.currentTimeMillis() - start, failed);
+        }
     }
 
     /**
      * Sends the message, retries if there was an error.
      */
-    private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter) throws IOException {
-        BinRpcMessage resp = null;
+    private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter, RpcStatistics statistics)
+            throws IOException {
         try {
-            Socket socket = socketHandler.getSocket(port);
-            socket.getOutputStream().write(request.createMessage());
-            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
-            return new RpcResponseParser(request).parse(resp.getResponseData());
+            return sendMessageOnce(port, request, statistics);
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
             throw rpcEx;
+        } catch (ConnectionBusyException busyEx) {
+            // the sockets are fine, they are just all in use by other requests
+            throw busyEx;
         } catch (IOException ioEx) {
             if ("init".equals(request.getMethodName()) || rpcRetryCounter >= MAX_RPC_RETRY) {
                 throw ioEx;
@@ -91,9 +118,35 @@ public class BinRpcClient extends RpcClient<byte[]> {
                 logger.debug("BinRpcMessage socket failure, sending message again {}/{}", rpcRetryCounter,
                         MAX_RPC_RETRY);
                 socketHandler.removeSocket(port);
-                return sendMessage(port, request, rpcRetryCounter);
+                return sendMessage(port, request, rpcRetryCounter, statistics);
             }
+        }
+    }
+
+    /**
+     * Sends the message on a socket of the given port and hands the socket back afterwards.
+     */
+    private Object[] sendMessageOnce(int port, RpcRequest<byte[]> request, RpcStatistics statistics)
+            throws IOException {
+        statistics.requestQueued();
+        long queued = System.currentTimeMillis();
+        SocketInfo socketInfo;
+        try {
+            socketInfo = socketHandler.acquireSocket(port);
+        } finally {
+            statistics.requestDequeued(System.currentTimeMillis() - queued);
+        }
+
+        BinRpcMessage resp = null;
+        boolean reusable = false;
+        try {
+            Socket socket = socketInfo.getSocket();
+            socket.getOutputStream().write(request.createMessage());
+            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            reusable = true;
+            return new RpcResponseParser(request).parse(resp.getResponseData());
         } finally {
+            socketHandler.releaseSocket(port, socketInfo, reusable);
             if (logger.isTraceEnabled()) {
                 logger.trace("Client BinRpcResponse:\n{}", resp == null ? "null" : resp.toString());
             }
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.io.IOException;
+
+/**
+ * Exception if no connection to a port became available in time. The cached sockets are still valid.
+ *
+ * @author agent - Initial contribution
+ */
+public class ConnectionBusyException extends IOException {
+    private static final long serialVersionUID = 3870594318229873513L;
+
+    public ConnectionBusyException(String message) {
+        super(message);
+    }
+
+}
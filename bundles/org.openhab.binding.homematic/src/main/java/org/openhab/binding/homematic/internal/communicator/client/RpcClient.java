@@ -16,6 +16,7 @@ import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -79,6 +80,13 @@ public abstract class RpcClient<T> {
      */
     protected abstract Object[] sendMessage(int port, RpcRequest<T> request) throws IOException;
 
+    /**
+     * Returns the request statistics per interface, if the client collects them.
+     */
+    public Map<String, RpcStatistics> getStatistics() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Register a callback for the specified interface where the Homematic gateway can send its events.
      */
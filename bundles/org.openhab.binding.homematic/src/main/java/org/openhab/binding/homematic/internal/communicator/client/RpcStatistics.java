@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request statistics of the RPC communication with one interface of a Homematic gateway.
+ *
+ * @author agent - Initial contribution
+ */
+public class RpcStatistics {
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final LongAdder totalWaitTime = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger maxWaiting = new AtomicInteger();
+
+    /**
+     * Called when a request starts waiting for a free connection.
+     */
+    public void requestQueued() {
+        int current = waiting.incrementAndGet();
+        maxWaiting.accumulateAndGet(current, Math::max);
+    }
+
+    /**
+     * Called when a request got a connection or gave up waiting for it.
+     */
+    public void requestDequeued(long waitTime) {
+        waiting.decrementAndGet();
+        totalWaitTime.add(waitTime);
+    }
+
+    /**
+     * Called when a request has been answered or failed finally, including all retries.
+     */
+    public void requestFinished(long latency, boolean failed) {
+        requests.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Returns the number of finished requests.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of failed requests.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the average latency of a request in milliseconds.
+     */
+    public long getAverageLatency() {
+        long count = requests.sum();
+        return count == 0 ? 0 : totalLatency.sum() / count;
+    }
+
+    /**
+     * Returns the maximum latency of a request in milliseconds.
+     */
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds a request waited for a free connection.
+     */
+    public long getAverageWaitTime() {
+        long count = requests.sum();
+        return count == 0 ? 0 : totalWaitTime.sum() / count;
+    }
+
+    /**
+     * Returns the number of requests currently waiting for a free connection.
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the maximum number of requests that waited for a free connection at the same time.
+     */
+    public int getMaxWaiting() {
+        return maxWaiting.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d, failures=%d, avgLatency=%dms, maxLatency=%dms, avgWait=%dms, waiting=%d, "
+                + "maxWaiting=%d", getRequests(), getFailures(), getAverageLatency(), getMaxLatency(),
+                getAverageWaitTime(), getWaiting(), getMaxWaiting());
+    }
+}
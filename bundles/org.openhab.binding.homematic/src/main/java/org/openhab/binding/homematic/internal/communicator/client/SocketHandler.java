@@ -15,22 +15,28 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Simple socket cache class. Every port has its own small pool of sockets, so requests to different ports are
+ * independent of each other, while the number of parallel connections to one port is limited by the
+ * socketMaxConnections setting.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<Integer, SocketInfo>();
+    private Map<Integer, PortSockets> socketsPerPort = new ConcurrentHashMap<>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -38,56 +44,106 @@ public class SocketHandler {
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Returns a socket for the given port, (re)creates it if required. Waits until a connection to the port is
+     * available, the socket must be handed back with {@link #releaseSocket(int, SocketInfo, boolean)}.
+     * With a single connection per port, requests are serialized and wait without a deadline, like they did before
+     * the connection limit was configurable.
+     *
+     * @throws ConnectionBusyException if more than one connection per port is allowed and all of them stay in use for
+     *             longer than the timeout
      */
-    public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
-            logger.trace("Creating new socket for port {}", port);
-            Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.setReuseAddress(true);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+    public SocketInfo acquireSocket(int port) throws IOException {
+        PortSockets sockets = getPortSockets(port);
+        try {
+            if (sockets.maxConnections == 1) {
+                sockets.permits.acquire();
+            } else if (!sockets.permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new ConnectionBusyException("Timeout waiting for a free connection on port " + port);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free connection on port " + port);
+        }
+
+        try {
+            SocketInfo socketInfo;
+            while ((socketInfo = sockets.idle.pollFirst()) != null) {
+                boolean isMaxAliveReached = System.currentTimeMillis()
+                        - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
 
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
+                if (isMaxAliveReached) {
+                    logger.debug("Max alive time reached for socket on port {}", port);
+                    closeSilent(socketInfo.getSocket());
+                } else {
+                    logger.trace("Returning socket for port {}", port);
+                    return socketInfo;
+                }
             }
-            logger.trace("Returning socket for port {}", port);
+            return createSocket(port);
+        } catch (IOException | RuntimeException e) {
+            sockets.permits.release();
+            throw e;
         }
-        return socketInfo.getSocket();
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Hands back a socket acquired with {@link #acquireSocket(int)}. The socket is cached for the next request if it
+     * is still usable, otherwise it is closed.
      */
-    public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
+    public void releaseSocket(int port, SocketInfo socketInfo, boolean reusable) {
+        PortSockets sockets = getPortSockets(port);
+        if (reusable && socketInfo.getCreated() > sockets.removed) {
+            sockets.idle.offerFirst(socketInfo);
+        } else {
             logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
             closeSilent(socketInfo.getSocket());
         }
+        sockets.permits.release();
+    }
+
+    /**
+     * Removes the sockets for the given port from the cache. Sockets currently in use are closed when released.
+     */
+    public void removeSocket(int port) {
+        PortSockets sockets = socketsPerPort.get(port);
+        if (sockets != null) {
+            sockets.removed = System.currentTimeMillis();
+            SocketInfo socketInfo;
+            while ((socketInfo = sockets.idle.pollFirst()) != null) {
+                logger.trace("Closing Socket on port {}", port);
+                closeSilent(socketInfo.getSocket());
+            }
+        }
     }
 
     /**
      * Removes all cached sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
-            }
+        for (Integer port : socketsPerPort.keySet()) {
+            removeSocket(port);
         }
     }
 
+    private PortSockets getPortSockets(int port) {
+        return socketsPerPort.computeIfAbsent(port,
+                p -> new PortSockets(Math.max(1, config.getSocketMaxConnections())));
+    }
+
+    private SocketInfo createSocket(int port) throws IOException {
+        logger.trace("Creating new socket for port {}", port);
+        Socket socket = new Socket();
+        try {
+            socket.setSoTimeout(config.getTimeout() * 1000);
+            socket.setReuseAddress(true);
+            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+        } catch (IOException e) {
+            closeSilent(socket);
+            throw e;
+        }
+        return new SocketInfo(socket);
+    }
+
     /**
      * Silently closes the given socket.
      */
@@ -98,4 +154,19 @@ public class SocketHandler {
             // ignore
         }
     }
+
+    /**
+     * The cached sockets and the connection limit of one port.
+     */
+    private static class PortSockets {
+        private final int maxConnections;
+        private final Semaphore permits;
+        private final Deque<SocketInfo> idle = new ConcurrentLinkedDeque<>();
+        private volatile long removed;
+
+        public PortSockets(int maxConnections) {
+            this.maxConnections = maxConnections;
+            this.permits = new Semaphore(maxConnections, true);
+        }
+    }
 }
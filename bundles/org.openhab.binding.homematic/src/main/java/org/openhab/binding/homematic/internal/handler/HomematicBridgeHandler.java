@@ -13,6 +13,7 @@
 package org.openhab.binding.homematic.internal.handler;
 
 import static org.eclipse.smarthome.core.thing.Thing.*;
+import static org.openhab.binding.homematic.internal.HomematicBindingConstants.BINDING_ID;
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.CHANNEL_TYPE_DUTY_CYCLE_RATIO;
 
 import java.io.IOException;
@@ -25,6 +26,7 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.storage.StorageService;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
@@ -39,6 +41,7 @@ import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.HomematicGateway;
 import org.openhab.binding.homematic.internal.communicator.HomematicGatewayAdapter;
 import org.openhab.binding.homematic.internal.communicator.HomematicGatewayFactory;
+import org.openhab.binding.homematic.internal.communicator.ParamsetDescriptionCache;
 import org.openhab.binding.homematic.internal.discovery.HomematicDeviceDiscoveryService;
 import org.openhab.binding.homematic.internal.misc.HomematicClientException;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -72,6 +75,7 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
     private HomematicGateway gateway;
     private final HomematicTypeGenerator typeGenerator;
     private final HttpClient httpClient;
+    private final StorageService storageService;
 
     private HomematicDeviceDiscoveryService discoveryService;
     private ServiceRegistration<?> discoveryServiceRegistration;
@@ -81,11 +85,12 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
     private int dutyCycleRatio = 0;
 
     public HomematicBridgeHandler(@NonNull Bridge bridge, HomematicTypeGenerator typeGenerator, String ipv4Address,
-            HttpClient httpClient) {
+            HttpClient httpClient, StorageService storageService) {
         super(bridge);
         this.typeGenerator = typeGenerator;
         this.ipv4Address = ipv4Address;
         this.httpClient = httpClient;
+        this.storageService = storageService;
     }
 
     @Override
@@ -103,7 +108,8 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
 
             try {
                 String id = getThing().getUID().getId();
-                gateway = HomematicGatewayFactory.createGateway(id, config, this, httpClient);
+                ParamsetDescriptionCache paramsetDescriptionCache = createParamsetDescriptionCache();
+                gateway = HomematicGatewayFactory.createGateway(id, config, this, httpClient, paramsetDescriptionCache);
                 configureThingProperties();
                 gateway.initialize();
 
@@ -173,6 +179,21 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
         }
     }
 
+    @Override
+    public void handleRemoval() {
+        createParamsetDescriptionCache().clear();
+        super.handleRemoval();
+    }
+
+    /**
+     * Creates the paramset description cache of this bridge, it is backed by a storage per bridge.
+     */
+    private ParamsetDescriptionCache createParamsetDescriptionCache() {
+        return new ParamsetDescriptionCache(
+                storageService.getStorage(BINDING_ID + ".paramsetDescriptions." + getThing().getUID().getId(),
+                        ParamsetDescriptionCache.class.getClassLoader()));
+    }
+
     private void disposeInternal() {
         logger.debug("Disposing bridge '{}'", getThing().getUID().getId());
         if (discoveryService != null) {
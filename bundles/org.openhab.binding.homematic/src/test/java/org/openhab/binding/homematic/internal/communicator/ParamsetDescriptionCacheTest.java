@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.test.util.DimmerHelper.createDimmerHmChannel;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.storage.Storage;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.communicator.ParamsetDescriptionCache.ChannelDescription;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests for {@link ParamsetDescriptionCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCacheTest {
+    private static final String CHANNEL_ID = "HM-LC-Dim1-Pl3:1:1";
+    private static final String GATEWAY_VERSION = "CCU2:2.47.20";
+
+    private ParamsetDescriptionCache cache;
+    private HmChannel channel;
+
+    @Before
+    public void setup() {
+        cache = new ParamsetDescriptionCache(new GsonStorage());
+        channel = createDimmerHmChannel();
+    }
+
+    @Test
+    public void datapointsAreRestoredWithTheirValueTypes() {
+        HmDatapoint level = new HmDatapoint("LEVEL", "LEVEL", HmValueType.FLOAT, 0.5, false, HmParamsetType.VALUES);
+        level.setMinValue(0.0);
+        level.setMaxValue(1.01f);
+        level.setDefaultValue(0.0);
+        level.setUnit("100%");
+        level.setReadable(true);
+        HmDatapoint ramp = new HmDatapoint("RAMP_TIME", "RAMP_TIME", HmValueType.INTEGER, 5, false,
+                HmParamsetType.MASTER);
+        ramp.setMinValue(0);
+        ramp.setMaxValue(85825945);
+        ramp.setDefaultValue(5);
+        HmDatapoint working = new HmDatapoint("WORKING", "WORKING", HmValueType.BOOL, true, true,
+                HmParamsetType.VALUES);
+        working.setDefaultValue(false);
+
+        cache.put(CHANNEL_ID, channel, Arrays.asList(level, ramp, working), GATEWAY_VERSION);
+        List<HmDatapoint> datapoints = cache.get(CHANNEL_ID, channel, GATEWAY_VERSION);
+
+        assertThat(datapoints.size(), is(3));
+        HmDatapoint restoredLevel = datapoints.get(0);
+        assertThat(restoredLevel.getName(), is("LEVEL"));
+        assertThat(restoredLevel.getType(), is(HmValueType.FLOAT));
+        assertThat(restoredLevel.getMinValue(), is((Number) 0.0));
+        assertThat(restoredLevel.getMaxValue(), is((Number) 1.01f));
+        assertThat(restoredLevel.getUnit(), is("100%"));
+        assertThat(restoredLevel.isReadable(), is(true));
+        assertThat(restoredLevel.getValue(), is(nullValue()));
+        HmDatapoint restoredRamp = datapoints.get(1);
+        assertThat(restoredRamp.getParamsetType(), is(HmParamsetType.MASTER));
+        assertThat(restoredRamp.getMaxValue(), is((Number) 85825945));
+        assertThat(restoredRamp.getDefaultValue(), is((Object) 5));
+        HmDatapoint restoredWorking = datapoints.get(2);
+        assertThat(restoredWorking.isReadOnly(), is(true));
+        assertThat(restoredWorking.getDefaultValue(), is((Object) false));
+    }
+
+    @Test
+    public void virtualDatapointsAreNotCached() {
+        HmDatapoint virtual = new HmDatapoint("RSSI", "RSSI", HmValueType.INTEGER, 0, true, HmParamsetType.VALUES);
+        virtual.setVirtual(true);
+
+        cache.put(CHANNEL_ID, channel, Collections.singletonList(virtual), GATEWAY_VERSION);
+
+        assertThat(cache.get(CHANNEL_ID, channel, GATEWAY_VERSION).isEmpty(), is(true));
+    }
+
+    @Test
+    public void entryIsInvalidAfterGatewayUpdate() {
+        cache.put(CHANNEL_ID, channel, Collections.emptyList(), GATEWAY_VERSION);
+
+        assertThat(cache.get(CHANNEL_ID, channel, "CCU2:2.49.18"), is(nullValue()));
+    }
+
+    @Test
+    public void entryIsInvalidForOtherChannelType() {
+        cache.put(CHANNEL_ID, channel, Collections.emptyList(), GATEWAY_VERSION);
+
+        assertThat(cache.get(CHANNEL_ID, new HmChannel("DIMMER", 1), GATEWAY_VERSION), is(nullValue()));
+    }
+
+    @Test
+    public void allEntriesAreCleared() {
+        cache.put(CHANNEL_ID, channel, Collections.emptyList(), GATEWAY_VERSION);
+
+        cache.clear();
+
+        assertThat(cache.get(CHANNEL_ID, channel, GATEWAY_VERSION), is(nullValue()));
+    }
+
+    @Test
+    public void unusedEntriesAreRemoved() {
+        cache.put(CHANNEL_ID, channel, Collections.emptyList(), GATEWAY_VERSION);
+        cache.put("HM-LC-Sw1-Pl:1:1", channel, Collections.emptyList(), GATEWAY_VERSION);
+
+        cache.retainAll(Collections.singleton(CHANNEL_ID));
+
+        assertThat(cache.get(CHANNEL_ID, channel, GATEWAY_VERSION), is(notNullValue()));
+        assertThat(cache.get("HM-LC-Sw1-Pl:1:1", channel, GATEWAY_VERSION), is(nullValue()));
+    }
+
+    /**
+     * Storage which keeps the entries as JSON like the JSON storage of the framework, so every entry is
+     * serialized and deserialized by Gson.
+     */
+    private static class GsonStorage implements Storage<ChannelDescription> {
+        private final Gson gson = new Gson();
+        private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public ChannelDescription put(String key, ChannelDescription value) {
+            return fromJson(entries.put(key, gson.toJson(value)));
+        }
+
+        @Override
+        public ChannelDescription remove(String key) {
+            return fromJson(entries.remove(key));
+        }
+
+        @Override
+        public boolean containsKey(String key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public ChannelDescription get(String key) {
+            return fromJson(entries.get(key));
+        }
+
+        @Override
+        public Collection<String> getKeys() {
+            return entries.keySet();
+        }
+
+        @Override
+        public Collection<ChannelDescription> getValues() {
+            return entries.values().stream().map(this::fromJson).collect(Collectors.toList());
+        }
+
+        private ChannelDescription fromJson(String json) {
+            return json == null ? null : gson.fromJson(json, ChannelDescription.class);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+
+/**
+ * Tests for {@link SocketHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SocketHandlerTest {
+
+    private ServerSocket rfServer;
+    private ServerSocket hmIpServer;
+    private SocketHandler socketHandler;
+
+    @Before
+    public void setup() throws IOException {
+        rfServer = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+        hmIpServer = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+
+        HomematicConfig config = new HomematicConfig();
+        config.setGatewayAddress(InetAddress.getLoopbackAddress().getHostAddress());
+        config.setTimeout(1);
+        socketHandler = new SocketHandler(config);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        socketHandler.flush();
+        rfServer.close();
+        hmIpServer.close();
+    }
+
+    @Test
+    public void differentPortsAreIndependent() throws IOException {
+        SocketInfo rfSocket = socketHandler.acquireSocket(rfServer.getLocalPort());
+        SocketInfo hmIpSocket = socketHandler.acquireSocket(hmIpServer.getLocalPort());
+
+        assertThat(hmIpSocket.getSocket().isConnected(), is(true));
+
+        socketHandler.releaseSocket(rfServer.getLocalPort(), rfSocket, true);
+        socketHandler.releaseSocket(hmIpServer.getLocalPort(), hmIpSocket, true);
+    }
+
+    @Test
+    public void releasedSocketIsReused() throws IOException {
+        int port = rfServer.getLocalPort();
+        SocketInfo first = socketHandler.acquireSocket(port);
+        socketHandler.releaseSocket(port, first, true);
+
+        SocketInfo second = socketHandler.acquireSocket(port);
+
+        assertThat(second, is(sameInstance(first)));
+        socketHandler.releaseSocket(port, second, true);
+    }
+
+    @Test
+    public void singleConnectionPerPortByDefault() throws Exception {
+        int port = rfServer.getLocalPort();
+        SocketInfo socketInfo = socketHandler.acquireSocket(port);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<SocketInfo> waiting = executor.submit(() -> socketHandler.acquireSocket(port));
+
+            // waits for the socket in use for longer than the timeout, without failing
+            try {
+                waiting.get(2, TimeUnit.SECONDS);
+                fail("Expected the second request to wait");
+            } catch (TimeoutException e) {
+                assertThat(socketInfo.getSocket().isClosed(), is(false));
+            }
+
+            socketHandler.releaseSocket(port, socketInfo, true);
+            SocketInfo next = waiting.get(5, TimeUnit.SECONDS);
+            assertThat(next, is(sameInstance(socketInfo)));
+            socketHandler.releaseSocket(port, next, true);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void busyWhenAllConnectionsStayInUse() throws IOException {
+        HomematicConfig config = new HomematicConfig();
+        config.setGatewayAddress(InetAddress.getLoopbackAddress().getHostAddress());
+        config.setTimeout(1);
+        config.setSocketMaxConnections(2);
+        SocketHandler handler = new SocketHandler(config);
+        int port = rfServer.getLocalPort();
+        SocketInfo first = handler.acquireSocket(port);
+        SocketInfo second = handler.acquireSocket(port);
+
+        try {
+            handler.acquireSocket(port);
+            fail("Expected a ConnectionBusyException");
+        } catch (ConnectionBusyException e) {
+            // the sockets in use are not affected by the timeout
+            assertThat(first.getSocket().isClosed(), is(false));
+            assertThat(second.getSocket().isClosed(), is(false));
+        }
+        handler.releaseSocket(port, first, true);
+        SocketInfo next = handler.acquireSocket(port);
+        assertThat(next, is(sameInstance(first)));
+        handler.releaseSocket(port, next, true);
+        handler.releaseSocket(port, second, true);
+        handler.flush();
+    }
+
+    @Test
+    public void socketInUseIsClosedOnReleaseAfterRemoval() throws IOException {
+        int port = rfServer.getLocalPort();
+        SocketInfo socketInfo = socketHandler.acquireSocket(port);
+
+        socketHandler.removeSocket(port);
+        socketHandler.releaseSocket(port, socketInfo, true);
+
+        assertThat(socketInfo.getSocket().isClosed(), is(true));
+        SocketInfo next = socketHandler.acquireSocket(port);
+        assertThat(next, is(not(sameInstance(socketInfo))));
+        socketHandler.releaseSocket(port, next, true);
+    }
+}
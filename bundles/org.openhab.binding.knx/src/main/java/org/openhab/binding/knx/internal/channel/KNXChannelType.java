@@ -191,10 +191,21 @@ public abstract class KNXChannelType {
     }
 
     public final @Nullable InboundSpec getListenSpec(Configuration configuration, GroupAddress groupAddress) {
+        return getListenSpecs(configuration).stream().filter(spec -> spec.getGroupAddresses().contains(groupAddress))
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * Get the listen specs of all configured group address keys, in the order in which
+     * {@link #getListenSpec(Configuration, GroupAddress)} evaluates them.
+     *
+     * @param configuration the channel configuration
+     * @return the listen specs which contain at least one group address
+     */
+    public final List<InboundSpec> getListenSpecs(Configuration configuration) {
         return getAllGAKeys().stream()
                 .map(key -> new ListenSpecImpl(parse((String) configuration.get(key)), getDefaultDPT(key)))
-                .filter(spec -> !spec.getGroupAddresses().isEmpty())
-                .filter(spec -> spec.getGroupAddresses().contains(groupAddress)).findFirst().orElse(null);
+                .filter(spec -> !spec.getGroupAddresses().isEmpty()).collect(toList());
     }
 
     protected abstract String getDefaultDPT(String gaConfigKey);
@@ -12,12 +12,22 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -33,11 +43,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import tuwien.auto.calimero.CloseEvent;
+import tuwien.auto.calimero.DataUnitBuilder;
 import tuwien.auto.calimero.DetachEvent;
 import tuwien.auto.calimero.FrameEvent;
 import tuwien.auto.calimero.GroupAddress;
 import tuwien.auto.calimero.IndividualAddress;
 import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.Priority;
 import tuwien.auto.calimero.datapoint.CommandDP;
 import tuwien.auto.calimero.datapoint.Datapoint;
 import tuwien.auto.calimero.device.ProcessCommunicationResponder;
@@ -65,6 +77,13 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     private static final int MAX_SEND_ATTEMPTS = 2;
 
+    /** Application layer service code of a GroupValueRead */
+    private static final int GROUP_READ = 0x00;
+    /** Minimum time in milliseconds between two reports of the read statistics */
+    private static final long READ_STATISTICS_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    /** Maximum time in milliseconds the published read statistics may be behind, unless they change meaningfully */
+    private static final long READ_STATISTICS_PUBLISH_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
 
@@ -85,8 +104,31 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    /**
+     * Index of the registered listeners by the group addresses they are interested in, so that a telegram is
+     * dispatched with a single lookup. Modifications are guarded by {@link #groupAddressesByListener}.
+     */
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByGroupAddress = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> groupAddressesByListener = new HashMap<>();
+    private final ReadDatapointQueue readDatapoints = new ReadDatapointQueue();
+    /** Read requests which have been sent, but not been answered yet */
+    private final Map<GroupAddress, ReadDatapoint> pendingReads = new ConcurrentHashMap<>();
+
+    private final ReadPacer readPacer;
+    /** Telegrams received since the last reading pause, not counting the answers to our own read requests */
+    private final AtomicInteger receivedTelegrams = new AtomicInteger();
+    private final AtomicInteger maxReadQueueDepth = new AtomicInteger();
+    private final LongAdder readsSent = new LongAdder();
+    private final LongAdder readsRetried = new LongAdder();
+    private final LongAdder readsFailed = new LongAdder();
+    private final LongAdder readsAnswered = new LongAdder();
+    private final LongAdder timeToFirstStateTotal = new LongAdder();
+    private final AtomicLong timeToFirstStateMax = new AtomicLong();
+    private volatile long confirmationLatency;
+    private volatile boolean readStatisticsChanged;
+    private long readStatisticsReported;
+    private long readStatisticsPublished;
+    private Map<String, String> publishedReadStatistics = Collections.emptyMap();
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -103,6 +145,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupWrite(ProcessEvent e) {
+            telegramReceived(e.getDestination(), true);
             processEvent("Group Write", e, (listener, source, destination, asdu) -> {
                 listener.onGroupWrite(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -110,6 +153,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupReadRequest(ProcessEvent e) {
+            telegramReceived(e.getDestination(), false);
             processEvent("Group Read Request", e, (listener, source, destination, asdu) -> {
                 listener.onGroupRead(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -117,6 +161,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupReadResponse(ProcessEvent e) {
+            telegramReceived(e.getDestination(), true);
             processEvent("Group Read Response", e, (listener, source, destination, asdu) -> {
                 listener.onGroupReadResponse(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -132,6 +177,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.readRetriesLimit = readRetriesLimit;
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
+        this.readPacer = new ReadPacer(readingPause);
     }
 
     public void initialize() {
@@ -196,7 +242,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
+            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoints(), 0, readingPause,
                     TimeUnit.MILLISECONDS);
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
@@ -224,6 +270,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
         readDatapoints.clear();
+        pendingReads.clear();
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -251,10 +298,18 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        Set<GroupAddressListener> listeners = listenersByGroupAddress.get(destination);
+        if (listeners != null && !listeners.isEmpty()) {
+            knxScheduler.execute(() -> {
+                for (GroupAddressListener listener : listeners) {
+                    try {
+                        action.apply(listener, source, destination, asdu);
+                    } catch (RuntimeException e) {
+                        logger.warn("Error processing a {} telegram to '{}': {}", task, destination, e.getMessage(),
+                                e);
+                    }
+                }
+            });
         }
     }
 
@@ -270,37 +325,168 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
-    @SuppressWarnings("null")
-    private void readNextQueuedDatapoint() {
+    /**
+     * Sends the next queued read requests. Called once per reading pause.
+     * <p>
+     * The number of requests sent per pause is adapted to the bus load and the confirmation latency, see
+     * {@link ReadPacer}. The bus load does not include the answers to our own requests.
+     * The requests are not waited for to be answered, the answers are dispatched like any other telegram.
+     * Unanswered requests are retried after the response timeout.
+     */
+    private void readNextQueuedDatapoints() {
         if (!connectIfNotAutomatic()) {
             return;
         }
-        ProcessCommunicator processCommunicator = this.processCommunicator;
-        if (processCommunicator == null) {
+        KNXNetworkLink link = this.link;
+        if (link == null) {
             return;
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
-        if (datapoint != null) {
-            datapoint.incrementRetries();
-            try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
-            } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
-                }
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted sending KNX read request");
+        retryUnansweredReads();
+
+        int readsPerPause = readPacer.startPause(receivedTelegrams.getAndSet(0));
+        int sent = 0;
+        long latency = 0;
+        while (sent < readsPerPause) {
+            ReadDatapoint datapoint = readDatapoints.poll();
+            if (datapoint == null) {
+                break;
+            }
+            long start = System.nanoTime();
+            if (!sendReadRequest(link, datapoint)) {
+                readPacer.failed();
                 return;
             }
+            latency += System.nanoTime() - start;
+            sent++;
+        }
+
+        if (sent > 0) {
+            long averageLatency = TimeUnit.NANOSECONDS.toMillis(latency / sent);
+            confirmationLatency = averageLatency;
+            readPacer.sent(sent, averageLatency);
+        } else if (pendingReads.isEmpty()) {
+            reportReadStatistics();
+        }
+    }
+
+    private boolean sendReadRequest(KNXNetworkLink link, ReadDatapoint datapoint) {
+        GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+        datapoint.incrementRetries();
+        try {
+            logger.trace("Sending a Group Read Request telegram for {}", groupAddress);
+            datapoint.setSent(System.currentTimeMillis());
+            pendingReads.put(groupAddress, datapoint);
+            byte[] apdu = DataUnitBuilder.createLengthOptimizedAPDU(GROUP_READ, null);
+            link.sendRequestWait(groupAddress, Priority.LOW, apdu);
+            readsSent.increment();
+            readStatisticsChanged = true;
+            return true;
+        } catch (KNXException e) {
+            pendingReads.remove(groupAddress, datapoint);
+            retryRead(datapoint, e.getMessage());
+        } catch (InterruptedException e) {
+            pendingReads.remove(groupAddress, datapoint);
+            logger.debug("Interrupted sending KNX read request");
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void retryUnansweredReads() {
+        long timeout = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(responseTimeout);
+        for (Iterator<ReadDatapoint> iterator = pendingReads.values().iterator(); iterator.hasNext();) {
+            ReadDatapoint datapoint = iterator.next();
+            if (datapoint.getSent() < timeout) {
+                iterator.remove();
+                retryRead(datapoint, "no response");
+            }
         }
     }
 
+    private void retryRead(ReadDatapoint datapoint, @Nullable String reason) {
+        if (datapoint.getRetries() < datapoint.getLimit()) {
+            readsRetried.increment();
+            enqueueRead(datapoint);
+            logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
+                    datapoint.getDatapoint().getMainAddress(), reason);
+        } else {
+            readsFailed.increment();
+            logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                    datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
+        }
+    }
+
+    /**
+     * Counts a received telegram towards the bus load, unless it answers one of our own read requests.
+     */
+    private void telegramReceived(GroupAddress destination, boolean mayAnswerRead) {
+        if (!mayAnswerRead || !readAnswered(destination)) {
+            receivedTelegrams.incrementAndGet();
+        }
+    }
+
+    private boolean readAnswered(GroupAddress destination) {
+        ReadDatapoint datapoint = pendingReads.remove(destination);
+        if (datapoint == null) {
+            return false;
+        }
+        long timeToFirstState = System.currentTimeMillis() - datapoint.getRequested();
+        readsAnswered.increment();
+        timeToFirstStateTotal.add(timeToFirstState);
+        timeToFirstStateMax.accumulateAndGet(timeToFirstState, Math::max);
+        return true;
+    }
+
+    private void enqueueRead(ReadDatapoint datapoint) {
+        if (pendingReads.containsKey(datapoint.getDatapoint().getMainAddress())) {
+            // already sent, the answer is on its way
+            return;
+        }
+        if (readDatapoints.offer(datapoint)) {
+            maxReadQueueDepth.accumulateAndGet(readDatapoints.size(), Math::max);
+        }
+    }
+
+    /**
+     * Reports the read statistics once all queued read requests have been answered or given up, at most once per
+     * {@link #READ_STATISTICS_INTERVAL}.
+     * <p>
+     * Periodic reads change the counters all the time, so the statistics are always logged, but only published to the
+     * bridge when they are reported for the first time, a read failed or the queue grew deeper than before, and at
+     * least once per {@link #READ_STATISTICS_PUBLISH_INTERVAL}. Publishing rewrites the thing properties.
+     */
+    private void reportReadStatistics() {
+        long now = System.currentTimeMillis();
+        if (!readStatisticsChanged || now - readStatisticsReported < READ_STATISTICS_INTERVAL) {
+            return;
+        }
+        readStatisticsChanged = false;
+        readStatisticsReported = now;
+        long answered = readsAnswered.sum();
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("readsSent", String.valueOf(readsSent.sum()));
+        statistics.put("readsRetried", String.valueOf(readsRetried.sum()));
+        statistics.put("readsFailed", String.valueOf(readsFailed.sum()));
+        statistics.put("readQueueMaxDepth", String.valueOf(maxReadQueueDepth.get()));
+        statistics.put("readTimeToFirstStateAvg",
+                (answered > 0 ? timeToFirstStateTotal.sum() / answered : 0) + " ms");
+        statistics.put("readTimeToFirstStateMax", timeToFirstStateMax.get() + " ms");
+        statistics.put("readConfirmationLatency", confirmationLatency + " ms");
+        logger.debug("Read queue of bridge {} is empty: {}", thingUID, statistics);
+
+        if (publishedReadStatistics.isEmpty() || changed(statistics, "readsFailed")
+                || changed(statistics, "readQueueMaxDepth")
+                || now - readStatisticsPublished >= READ_STATISTICS_PUBLISH_INTERVAL) {
+            publishedReadStatistics = statistics;
+            readStatisticsPublished = now;
+            statusUpdateCallback.updateReadStatistics(statistics);
+        }
+    }
+
+    private boolean changed(Map<String, String> statistics, String name) {
+        return !Objects.equals(statistics.get(name), publishedReadStatistics.get(name));
+    }
+
     public void dispose() {
         cancelReconnectJob();
         disconnect(null);
@@ -366,23 +552,45 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        enqueueRead(new ReadDatapoint(datapoint, readRetriesLimit, priority));
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        Set<GroupAddress> groupAddresses = Collections.unmodifiableSet(new HashSet<>(listener.getGroupAddresses()));
+        synchronized (groupAddressesByListener) {
+            Set<GroupAddress> previous = groupAddressesByListener.put(listener, groupAddresses);
+            if (previous != null) {
+                removeFromIndex(listener, previous);
+            }
+            for (GroupAddress groupAddress : groupAddresses) {
+                listenersByGroupAddress.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>())
+                        .add(listener);
+            }
+            return previous == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (groupAddressesByListener) {
+            Set<GroupAddress> previous = groupAddressesByListener.remove(listener);
+            if (previous == null) {
+                return false;
+            }
+            removeFromIndex(listener, previous);
+            return true;
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            listenersByGroupAddress.computeIfPresent(groupAddress, (ga, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
     }
 
     @Override
@@ -24,11 +24,19 @@ public class ReadDatapoint {
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private volatile ReadPriority priority;
+    private final long requested = System.currentTimeMillis();
+    private long sent;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
+        this(datapoint, limit, ReadPriority.PERIODIC);
+    }
+
+    public ReadDatapoint(Datapoint datapoint, int limit, ReadPriority priority) {
         this.datapoint = datapoint;
         this.retries = 0;
         this.limit = limit;
+        this.priority = priority;
     }
 
     public Datapoint getDatapoint() {
@@ -47,6 +55,32 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public ReadPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(ReadPriority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * @return the time the read was first requested, in milliseconds since the epoch
+     */
+    public long getRequested() {
+        return requested;
+    }
+
+    /**
+     * @return the time the read request was last sent to the bus, in milliseconds since the epoch
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    public void setSent(long sent) {
+        this.sent = sent;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of {@link ReadDatapoint}s waiting to be sent to the bus.
+ * <p>
+ * Each group address is queued at most once, which is checked in constant time. Requests are served by
+ * {@link ReadPriority}, in FIFO order within a priority. A request for an already queued group address with a higher
+ * priority moves the queued request forward.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ReadDatapointQueue {
+
+    private final Map<GroupAddress, ReadDatapoint> pending = new ConcurrentHashMap<>();
+    private final Map<ReadPriority, Queue<ReadDatapoint>> queues = new EnumMap<>(ReadPriority.class);
+
+    public ReadDatapointQueue() {
+        for (ReadPriority priority : ReadPriority.values()) {
+            queues.put(priority, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Add a read request, unless the group address is already queued.
+     *
+     * @param datapoint the request
+     * @return {@code true} if the group address was not queued before
+     */
+    public boolean offer(ReadDatapoint datapoint) {
+        boolean[] added = { false };
+        pending.compute(datapoint.getDatapoint().getMainAddress(), (groupAddress, queued) -> {
+            if (queued == null) {
+                getQueue(datapoint.getPriority()).add(datapoint);
+                added[0] = true;
+                return datapoint;
+            }
+            if (datapoint.getPriority().compareTo(queued.getPriority()) < 0) {
+                // the entry in the lower priority queue becomes stale and is skipped by poll()
+                queued.setPriority(datapoint.getPriority());
+                getQueue(datapoint.getPriority()).add(queued);
+            }
+            return queued;
+        });
+        return added[0];
+    }
+
+    /**
+     * Remove the next request to send.
+     *
+     * @return the request with the highest priority, or {@code null} if the queue is empty
+     */
+    public @Nullable ReadDatapoint poll() {
+        for (ReadPriority priority : ReadPriority.values()) {
+            Queue<ReadDatapoint> queue = getQueue(priority);
+            ReadDatapoint datapoint;
+            while ((datapoint = queue.poll()) != null) {
+                if (datapoint.getPriority() == priority
+                        && pending.remove(datapoint.getDatapoint().getMainAddress(), datapoint)) {
+                    return datapoint;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of queued group addresses
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public void clear() {
+        pending.clear();
+        queues.values().forEach(Queue::clear);
+    }
+
+    @SuppressWarnings("null")
+    private Queue<ReadDatapoint> getQueue(ReadPriority priority) {
+        return queues.get(priority);
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Decides how many read requests are sent per reading pause.
+ * <p>
+ * The number of requests is adapted additive-increase/multiplicative-decrease style: It grows by one while the bus is
+ * quiet and the interface confirms the requests quickly, is halved when the bus is busy and drops to one when sending
+ * fails. At least one request is sent per pause, so reading makes progress on a busy bus as well. The bus load is a
+ * moving average over {@link #BUS_LOAD_PERIOD}.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+class ReadPacer {
+
+    /** Upper limit of read requests sent within one reading pause */
+    static final int MAX_READS_PER_PAUSE = 8;
+    /** Received telegrams per second above which the bus is considered busy and reading slows down */
+    static final int BUSY_TELEGRAMS_PER_SECOND = 20;
+    /** Time in milliseconds over which the bus load is averaged */
+    static final int BUS_LOAD_PERIOD = 1000;
+
+    private final int readingPause;
+
+    private int readsPerPause = 1;
+    /** Telegrams per second on the bus */
+    private double busLoad;
+    private boolean busy;
+
+    ReadPacer(int readingPause) {
+        this.readingPause = Math.max(readingPause, 1);
+    }
+
+    /**
+     * Starts a reading pause.
+     *
+     * @param receivedTelegrams the number of telegrams received during the previous pause
+     * @return the number of read requests to send in this pause
+     */
+    int startPause(int receivedTelegrams) {
+        double telegramsPerSecond = receivedTelegrams * 1000.0 / readingPause;
+        busLoad += (telegramsPerSecond - busLoad) * readingPause / Math.max(readingPause, BUS_LOAD_PERIOD);
+        busy = busLoad > BUSY_TELEGRAMS_PER_SECOND;
+        if (busy) {
+            readsPerPause = Math.max(1, readsPerPause / 2);
+        }
+        return readsPerPause;
+    }
+
+    /**
+     * Finishes a reading pause in which all requests were sent successfully.
+     *
+     * @param sent the number of requests sent
+     * @param averageLatency the average time in milliseconds the interface took to confirm a request
+     */
+    void sent(int sent, long averageLatency) {
+        if (!busy && sent == readsPerPause && averageLatency * readsPerPause < readingPause) {
+            readsPerPause = Math.min(MAX_READS_PER_PAUSE, readsPerPause + 1);
+        }
+    }
+
+    /**
+     * Sending a request failed, continue with a single request per pause.
+     */
+    void failed() {
+        readsPerPause = 1;
+    }
+
+    int getReadsPerPause() {
+        return readsPerPause;
+    }
+
+    double getBusLoad() {
+        return busLoad;
+    }
+
+}
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
@@ -39,4 +41,11 @@ public interface StatusUpdateCallback {
      */
     void updateStatus(ThingStatus status, ThingStatusDetail thingStatusDetail, String message);
 
+    /**
+     * Publish statistics about the read requests, e.g. as thing properties
+     *
+     * @param statistics the statistics by name
+     */
+    void updateReadStatistics(Map<String, String> statistics);
+
 }
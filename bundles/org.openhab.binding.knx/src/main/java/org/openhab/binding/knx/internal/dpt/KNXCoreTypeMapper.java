@@ -13,8 +13,6 @@
 package org.openhab.binding.knx.internal.dpt;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -24,6 +22,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -95,6 +97,15 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     private static final String TIME_DAY_FORMAT = new String("EEE, HH:mm:ss");
     private static final String DATE_FORMAT = new String("yyyy-MM-dd");
 
+    /**
+     * Pool of translators by datapoint type id. A translator holds the data it translates, so it is used by one thread
+     * at a time and returned to the pool afterwards.
+     */
+    private static final Map<String, Queue<DPTXlator>> TRANSLATORS = new ConcurrentHashMap<>();
+
+    /** The datapoint types by id, empty if calimero has no translator for the id */
+    private static final Map<String, Optional<DPT>> DPTS = new ConcurrentHashMap<>();
+
     /**
      * stores the openHAB type class for (supported) KNX datapoint types in a generic way.
      * dptTypeMap stores more specific type class and exceptions.
@@ -586,10 +597,8 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
             return null;
         }
 
-        try {
-            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
-            dpt = translator.getType();
-        } catch (KNXException e) {
+        dpt = getDPT(mainNumber, dptID);
+        if (dpt == null) {
             return null;
         }
 
@@ -674,8 +683,17 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        String dptID = datapoint.getDPT();
+        DPTXlator translator = null;
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            if (dptID != null) {
+                int directMainNumber = getMainNumber(dptID);
+                if (isDirectlyConvertible(directMainNumber, dptID)) {
+                    return toTypeDirect(directMainNumber, getSubNumber(dptID), dptID, data);
+                }
+            }
+
+            translator = borrowTranslator(datapoint.getMainNumber(), dptID);
             translator.setData(data);
             String value = translator.getValue();
 
@@ -731,28 +749,6 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                         case 8:
                             return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
                     }
-                case 14:
-                    /*
-                     * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
-                     * locale when
-                     * translating a Float to String. It could happen the a ',' is used as separator, such as
-                     * 3,14159E20.
-                     * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
-                     * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
-                     * there.
-                     */
-                    DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
-                    Float f = translator4ByteFloat.getValueFloat();
-                    if (Math.abs(f) < 100000) {
-                        value = String.valueOf(f);
-                    } else {
-                        NumberFormat dcf = NumberFormat.getInstance(Locale.US);
-                        if (dcf instanceof DecimalFormat) {
-                            ((DecimalFormat) dcf).applyPattern("0.#####E0");
-                        }
-                        value = dcf.format(f);
-                    }
-                    break;
                 case 18:
                     DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
                     int decimalValue = translatorSceneControl.getSceneNumber();
@@ -839,15 +835,6 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                 }
             }
 
-            if (typeClass.equals(HSBType.class)) {
-                // value has format of "r:<red value> g:<green value> b:<blue value>"
-                int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
-                int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
-                int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
-
-                return HSBType.fromRGB(r, g, b);
-            }
-
         } catch (KNXFormatException kfe) {
             logger.info("Translator couldn't parse data for datapoint type '{}' (KNXFormatException).",
                     datapoint.getDPT());
@@ -856,11 +843,124 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     datapoint.getDPT());
         } catch (KNXException e) {
             logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+        } finally {
+            if (translator != null && dptID != null) {
+                releaseTranslator(dptID, translator);
+            }
         }
 
         return null;
     }
 
+    /**
+     * Checks whether {@link #toTypeDirect(int, int, String, byte[])} handles the given datapoint type.
+     */
+    private boolean isDirectlyConvertible(int mainNumber, String dptID) {
+        switch (mainNumber) {
+            case 1:
+            case 5:
+            case 9:
+            case 14:
+                return getDPT(mainNumber, dptID) != null;
+            case 232:
+                return HSBType.class.equals(toTypeClass(dptID)) && getDPT(mainNumber, dptID) != null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Converts the ASDU of the most common datapoint types directly into the openHAB type, without setting up a
+     * translator and formatting and parsing its string representation. The results are the same as with the
+     * translators of calimero.
+     */
+    private Type toTypeDirect(int mainNumber, int subNumber, String dptID, byte[] data) throws KNXFormatException {
+        Class<? extends Type> typeClass = toTypeClass(dptID);
+        switch (mainNumber) {
+            case 1:
+                checkLength(dptID, data, 1);
+                boolean bit = (data[0] & 0x01) != 0;
+                switch (subNumber) {
+                    case 8:
+                        return bit ? UpDownType.DOWN : UpDownType.UP;
+                    case 9:
+                        return bit ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                    case 10:
+                        return bit ? StopMoveType.MOVE : StopMoveType.STOP;
+                    case 19:
+                        return bit ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                    case 22:
+                        return bit ? DecimalType.valueOf("1") : DecimalType.valueOf("0");
+                    default:
+                        return bit ? OnOffType.ON : OnOffType.OFF;
+                }
+            case 5:
+                checkLength(dptID, data, 1);
+                int unsigned = data[0] & 0xFF;
+                if (DPTXlator8BitUnsigned.DPT_SCALING.getID().equals(dptID)) {
+                    unsigned = Math.round(unsigned * 100.0f / 255);
+                } else if (DPTXlator8BitUnsigned.DPT_ANGLE.getID().equals(dptID)) {
+                    unsigned = Math.round(unsigned * 360.0f / 255);
+                }
+                return toNumericType(typeClass, unsigned);
+            case 9:
+                checkLength(dptID, data, 2);
+                // MEEEEMMM MMMMMMMM: 12 bit two's complement mantissa M, 4 bit exponent E, value = 0.01 * M * 2^E
+                int mantissa = (data[0] & 0x80) << 24 >> 20 | (data[0] & 0x07) << 8 | (data[1] & 0xFF);
+                int exponent = (data[0] & 0x78) >> 3;
+                return toNumericType(typeClass, (1 << exponent) * mantissa * 0.01);
+            case 14:
+                checkLength(dptID, data, 4);
+                int bits = (data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8 | (data[3] & 0xFF);
+                return toNumericType(typeClass, Float.intBitsToFloat(bits));
+            case 232:
+                checkLength(dptID, data, 3);
+                return HSBType.fromRGB(data[0] & 0xFF, data[1] & 0xFF, data[2] & 0xFF);
+            default:
+                throw new IllegalArgumentException("No direct conversion for datapoint type " + dptID);
+        }
+    }
+
+    private Type toNumericType(Class<? extends Type> typeClass, double value) {
+        if (PercentType.class.equals(typeClass)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(value)));
+        }
+        return new DecimalType(value);
+    }
+
+    private void checkLength(String dptID, byte[] data, int length) throws KNXFormatException {
+        if (data.length < length) {
+            throw new KNXFormatException("Data too short for datapoint type " + dptID);
+        }
+    }
+
+    /**
+     * Gets a translator for the given datapoint type from the pool, or creates a new one.
+     * It has to be returned by {@link #releaseTranslator(String, DPTXlator)} after use.
+     */
+    private DPTXlator borrowTranslator(int mainNumber, String dptID) throws KNXException {
+        Queue<DPTXlator> pool = dptID != null ? TRANSLATORS.get(dptID) : null;
+        DPTXlator translator = pool != null ? pool.poll() : null;
+        return translator != null ? translator : TranslatorTypes.createTranslator(mainNumber, dptID);
+    }
+
+    private void releaseTranslator(String dptID, DPTXlator translator) {
+        TRANSLATORS.computeIfAbsent(dptID, id -> new ConcurrentLinkedQueue<>()).add(translator);
+    }
+
+    /**
+     * Gets the datapoint type with the given id, or {@code null} if there is no translator for it.
+     */
+    private DPT getDPT(int mainNumber, String dptID) {
+        return DPTS.computeIfAbsent(dptID, id -> {
+            try {
+                return Optional.of(TranslatorTypes.createTranslator(mainNumber, id).getType());
+            } catch (KNXException e) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -79,4 +80,14 @@ public abstract class KNXBridgeBaseThingHandler extends BaseBridgeHandler implem
         super.updateStatus(status, statusDetail, description);
     }
 
+    @Override
+    public void updateReadStatistics(Map<String, String> statistics) {
+        Map<String, String> properties = editProperties();
+        if (properties.entrySet().containsAll(statistics.entrySet())) {
+            return;
+        }
+        properties.putAll(statistics);
+        updateProperties(properties);
+    }
+
 }
@@ -15,11 +15,17 @@ package org.openhab.binding.knx.internal.channel;
 import static org.junit.Assert.*;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.smarthome.config.core.Configuration;
 import org.junit.Before;
 import org.junit.Test;
+import org.openhab.binding.knx.internal.client.InboundSpec;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXFormatException;
 
 /**
  *
@@ -95,6 +101,21 @@ public class KNXChannelTypeTest {
         assertEquals(2, res.getReadGAs().size());
     }
 
+    @Test
+    public void testGetListenSpecs() throws KNXFormatException {
+        Configuration configuration = new Configuration(Collections.singletonMap("ga", "1.001:<1/3/22+0/3/22"));
+        KNXChannelType switchType = new TypeSwitch();
+
+        List<InboundSpec> specs = switchType.getListenSpecs(configuration);
+
+        assertEquals(1, specs.size());
+        assertEquals("1.001", specs.get(0).getDPT());
+        assertTrue(specs.get(0).getGroupAddresses().contains(new GroupAddress("0/3/22")));
+        assertEquals(specs.get(0).getGroupAddresses(),
+                switchType.getListenSpec(configuration, new GroupAddress("0/3/22")).getGroupAddresses());
+        assertNull(switchType.getListenSpec(configuration, new GroupAddress("2/3/22")));
+    }
+
     private static class MyKNXChannelType extends KNXChannelType {
         public MyKNXChannelType(String channelTypeID) {
             super(channelTypeID);
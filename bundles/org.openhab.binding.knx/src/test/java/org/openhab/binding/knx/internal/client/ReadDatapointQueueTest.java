@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXFormatException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadDatapointQueueTest {
+
+    private ReadDatapointQueue queue;
+
+    @Before
+    public void setup() {
+        queue = new ReadDatapointQueue();
+    }
+
+    @Test
+    public void testDuplicatesAreIgnored() throws KNXFormatException {
+        assertTrue(queue.offer(read("1/2/3", ReadPriority.INITIAL)));
+        assertFalse(queue.offer(read("1/2/3", ReadPriority.INITIAL)));
+
+        assertEquals(1, queue.size());
+        assertEquals(new GroupAddress("1/2/3"), queue.poll().getDatapoint().getMainAddress());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testHigherPriorityFirst() throws KNXFormatException {
+        queue.offer(read("1/1/1", ReadPriority.PERIODIC));
+        queue.offer(read("1/1/2", ReadPriority.INITIAL));
+        queue.offer(read("1/1/3", ReadPriority.REFRESH));
+        queue.offer(read("1/1/4", ReadPriority.INITIAL));
+
+        assertEquals(new GroupAddress("1/1/3"), queue.poll().getDatapoint().getMainAddress());
+        assertEquals(new GroupAddress("1/1/2"), queue.poll().getDatapoint().getMainAddress());
+        assertEquals(new GroupAddress("1/1/4"), queue.poll().getDatapoint().getMainAddress());
+        assertEquals(new GroupAddress("1/1/1"), queue.poll().getDatapoint().getMainAddress());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testDuplicateWithHigherPriorityMovesForward() throws KNXFormatException {
+        queue.offer(read("1/1/1", ReadPriority.PERIODIC));
+        queue.offer(read("1/1/2", ReadPriority.INITIAL));
+        assertFalse(queue.offer(read("1/1/1", ReadPriority.REFRESH)));
+
+        ReadDatapoint first = queue.poll();
+        assertEquals(new GroupAddress("1/1/1"), first.getDatapoint().getMainAddress());
+        assertEquals(ReadPriority.REFRESH, first.getPriority());
+        assertEquals(new GroupAddress("1/1/2"), queue.poll().getDatapoint().getMainAddress());
+        // the stale entry in the periodic queue is skipped
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testOfferAgainAfterPoll() throws KNXFormatException {
+        queue.offer(read("1/1/1", ReadPriority.INITIAL));
+        ReadDatapoint datapoint = queue.poll();
+
+        assertTrue(queue.offer(datapoint));
+        assertSame(datapoint, queue.poll());
+    }
+
+    private ReadDatapoint read(String groupAddress, ReadPriority priority) throws KNXFormatException {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(groupAddress), "test", 0, "1.001"), 3, priority);
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadPacerTest {
+
+    private static final int READING_PAUSE = 50;
+    private static final double DELTA = 0.001;
+
+    private ReadPacer pacer;
+
+    @Before
+    public void setup() {
+        pacer = new ReadPacer(READING_PAUSE);
+    }
+
+    @Test
+    public void testAdditiveIncreaseOnQuietBus() {
+        for (int i = 1; i <= ReadPacer.MAX_READS_PER_PAUSE; i++) {
+            assertEquals(i, pacer.startPause(0));
+            pacer.sent(i, 0);
+        }
+        assertEquals(ReadPacer.MAX_READS_PER_PAUSE, pacer.startPause(0));
+        pacer.sent(ReadPacer.MAX_READS_PER_PAUSE, 0);
+        assertEquals(ReadPacer.MAX_READS_PER_PAUSE, pacer.getReadsPerPause());
+    }
+
+    @Test
+    public void testNoIncreaseWhenQueueRunsEmpty() {
+        assertEquals(1, pacer.startPause(0));
+        pacer.sent(0, 0);
+        assertEquals(1, pacer.startPause(0));
+    }
+
+    @Test
+    public void testNoIncreaseWhenConfirmationsAreSlow() {
+        assertEquals(1, pacer.startPause(0));
+        pacer.sent(1, 20);
+        assertEquals(2, pacer.startPause(0));
+        pacer.sent(2, 20);
+        assertEquals(3, pacer.startPause(0));
+        // 3 requests confirmed within 20ms each don't fit into the reading pause anymore
+        pacer.sent(3, 20);
+        assertEquals(3, pacer.startPause(0));
+    }
+
+    @Test
+    public void testMultiplicativeDecreaseOnBusyBus() {
+        growToMaximum();
+
+        // 100 telegrams per second
+        int telegramsPerPause = 100 * READING_PAUSE / 1000;
+        int pauses = 0;
+        int readsPerPause;
+        do {
+            readsPerPause = pacer.startPause(telegramsPerPause);
+            pacer.sent(readsPerPause, 0);
+            pauses++;
+        } while (readsPerPause == ReadPacer.MAX_READS_PER_PAUSE);
+        // the load is averaged, so it takes a few pauses until the bus is considered busy
+        assertTrue(pauses > 1);
+        assertTrue(pacer.getBusLoad() > ReadPacer.BUSY_TELEGRAMS_PER_SECOND);
+        assertEquals(ReadPacer.MAX_READS_PER_PAUSE / 2, readsPerPause);
+
+        assertEquals(ReadPacer.MAX_READS_PER_PAUSE / 4, pacer.startPause(telegramsPerPause));
+        pacer.sent(ReadPacer.MAX_READS_PER_PAUSE / 4, 0);
+        assertEquals(ReadPacer.MAX_READS_PER_PAUSE / 8, pacer.startPause(telegramsPerPause));
+        pacer.sent(ReadPacer.MAX_READS_PER_PAUSE / 8, 0);
+        // at least one request is sent on a busy bus
+        assertEquals(1, pacer.startPause(telegramsPerPause));
+        pacer.sent(1, 0);
+        assertEquals(1, pacer.getReadsPerPause());
+    }
+
+    @Test
+    public void testSingleBurstIsSmoothedOut() {
+        growToMaximum();
+
+        // 40 telegrams per second within a single pause only
+        assertEquals(ReadPacer.MAX_READS_PER_PAUSE, pacer.startPause(2));
+        assertEquals(40.0 * READING_PAUSE / ReadPacer.BUS_LOAD_PERIOD, pacer.getBusLoad(), DELTA);
+        pacer.sent(ReadPacer.MAX_READS_PER_PAUSE, 0);
+
+        pacer.startPause(0);
+        assertEquals(40.0 * READING_PAUSE / ReadPacer.BUS_LOAD_PERIOD * (1 - (double) READING_PAUSE / 1000),
+                pacer.getBusLoad(), DELTA);
+    }
+
+    @Test
+    public void testLongReadingPauseUsesCurrentLoad() {
+        pacer = new ReadPacer(2000);
+        pacer.startPause(10);
+        assertEquals(5.0, pacer.getBusLoad(), DELTA);
+        pacer.startPause(60);
+        assertEquals(30.0, pacer.getBusLoad(), DELTA);
+        pacer.startPause(0);
+        assertEquals(0.0, pacer.getBusLoad(), DELTA);
+    }
+
+    @Test
+    public void testFailureResetsToSingleRequest() {
+        growToMaximum();
+        pacer.failed();
+        assertEquals(1, pacer.startPause(0));
+    }
+
+    private void growToMaximum() {
+        while (pacer.getReadsPerPause() < ReadPacer.MAX_READS_PER_PAUSE) {
+            pacer.sent(pacer.startPause(0), 0);
+        }
+    }
+
+}
@@ -12,11 +12,25 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -30,4 +44,99 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    @Test
+    public void testToType_booleanDirect() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(OnOffType.ON, toType(mapper, "1.001", new byte[] { 1 }));
+        assertEquals(OnOffType.OFF, toType(mapper, "1.001", new byte[] { 0 }));
+        assertEquals(UpDownType.DOWN, toType(mapper, "1.008", new byte[] { 1 }));
+        assertEquals(OpenClosedType.CLOSED, toType(mapper, "1.009", new byte[] { 0 }));
+        assertEquals(new DecimalType(1), toType(mapper, "1.022", new byte[] { 1 }));
+    }
+
+    @Test
+    public void testToType_8BitUnsignedDirectEqualsTranslator() throws KNXException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (String dpt : new String[] { "5.001", "5.003", "5.004", "5.010" }) {
+            for (int i = 0; i < 256; i++) {
+                byte[] data = new byte[] { (byte) i };
+                double expected = translate(dpt, data).getNumericValue();
+                Type type = toType(mapper, dpt, data);
+                if (type instanceof PercentType) {
+                    assertEquals(dpt + " " + i, new PercentType(BigDecimal.valueOf(Math.round(expected))), type);
+                } else {
+                    assertEquals(dpt + " " + i, new DecimalType(expected), type);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testToType_2ByteFloatDirectEqualsTranslator() throws KNXException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (int high = 0; high < 256; high++) {
+            for (int low = 0; low < 256; low += 17) {
+                byte[] data = new byte[] { (byte) high, (byte) low };
+                assertEquals(new DecimalType(translate("9.001", data).getNumericValue()),
+                        toType(mapper, "9.001", data));
+            }
+        }
+        assertEquals(new PercentType(BigDecimal.valueOf(Math.round(translate("9.007", new byte[] { 0x0c, 0x1a })
+                .getNumericValue()))), toType(mapper, "9.007", new byte[] { 0x0c, 0x1a }));
+    }
+
+    @Test
+    public void testToType_4ByteFloatDirectEqualsTranslator() throws KNXException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (float value : new float[] { 0f, -1.5f, 3.14159f, 21.25f, 1.0E-10f, 3.4E20f, -273.15f }) {
+            int bits = Float.floatToIntBits(value);
+            byte[] data = new byte[] { (byte) (bits >> 24), (byte) (bits >> 16), (byte) (bits >> 8), (byte) bits };
+            assertEquals(new DecimalType(translate("14.019", data).getNumericValue()),
+                    toType(mapper, "14.019", data));
+        }
+    }
+
+    @Test
+    public void testToType_rgbDirect() {
+        assertEquals(HSBType.fromRGB(255, 128, 0),
+                toType(new KNXCoreTypeMapper(), "232.600", new byte[] { (byte) 255, (byte) 128, 0 }));
+    }
+
+    @Test
+    public void testToType_dataTooShort() {
+        assertNull(toType(new KNXCoreTypeMapper(), "9.001", new byte[] { 0x0c }));
+    }
+
+    @Test
+    public void testToType_allMainTypes() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        String[] dpts = { "1.001", "2.001", "3.007", "4.001", "5.001", "6.001", "7.001", "8.001", "9.001", "10.001",
+                "11.001", "12.001", "13.001", "14.001", "16.000", "17.001", "18.001", "232.600" };
+        byte[][] data = { { 1 }, { 3 }, { 0x09 }, { 0x41 }, { (byte) 0x80 }, { 0x10 }, { 0x01, 0x00 },
+                { (byte) 0xff, 0x00 }, { 0x0c, 0x1a }, { 0x2c, 0x1e, 0x00 }, { 0x1f, 0x0c, 0x13 },
+                { 0x00, 0x00, 0x01, 0x00 }, { (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x00 },
+                { 0x40, 0x49, 0x0f, (byte) 0xdb },
+                { 0x4f, 0x48, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 }, { 0x05 },
+                { (byte) 0x85 }, { 0x10, 0x20, 0x30 } };
+        for (int i = 0; i < dpts.length; i++) {
+            assertNotNull(dpts[i], toType(mapper, dpts[i], data[i]));
+            // a second conversion uses a pooled translator
+            assertEquals(dpts[i], toType(mapper, dpts[i], data[i]), toType(mapper, dpts[i], data[i]));
+        }
+    }
+
+    private Type toType(KNXCoreTypeMapper mapper, String dpt, byte[] data) {
+        try {
+            return mapper.toType(new CommandDP(new GroupAddress("1/2/3"), "test", 0, dpt), data);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private DPTXlator translate(String dpt, byte[] data) throws KNXException {
+        DPTXlator translator = TranslatorTypes.createTranslator(0, dpt);
+        translator.setData(data);
+        return translator;
+    }
+
 }
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -31,6 +32,7 @@ import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.generic.tools.MessageStatistics;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +70,13 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
 
     protected @Nullable MqttBrokerConnection connection;
 
+    // Received messages and transformation time of this thing
+    protected final MessageStatistics messageStatistics = new MessageStatistics();
+    // Interval of the debug log line with the message statistics
+    private static final int STATISTICS_LOG_INTERVAL_MINUTES = 5;
+    private @Nullable ScheduledFuture<?> statisticsLogJob;
+    private long loggedMessageCount;
+
     public AbstractMQTTThingHandler(Thing thing, int subscribeTimeout) {
         super(thing);
         this.subscribeTimeout = subscribeTimeout;
@@ -118,7 +127,9 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
             return;
         }
 
-        final CompletableFuture<Boolean> future = data.publishValue(command);
+        final AbstractBrokerHandler brokerHandler = getBridgeHandler();
+        final CompletableFuture<Boolean> future = data.publishValue(command,
+                brokerHandler != null ? brokerHandler.getPublishQueue() : null);
         future.exceptionally(e -> {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getLocalizedMessage());
             return false;
@@ -194,9 +205,22 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
 
     @Override
     public void initialize() {
+        statisticsLogJob = scheduler.scheduleWithFixedDelay(this::logMessageStatistics,
+                STATISTICS_LOG_INTERVAL_MINUTES, STATISTICS_LOG_INTERVAL_MINUTES, TimeUnit.MINUTES);
         bridgeStatusChanged(getBridgeStatus());
     }
 
+    /**
+     * Log the message statistics at debug level, if messages have been received since the last time.
+     */
+    protected void logMessageStatistics() {
+        final long messageCount = messageStatistics.getMessageCount();
+        if (messageCount != loggedMessageCount) {
+            loggedMessageCount = messageCount;
+            logger.debug("Message statistics of {}: {}", thing.getUID(), messageStatistics);
+        }
+    }
+
     @Override
     public void handleRemoval() {
         stop();
@@ -205,6 +229,12 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
 
     @Override
     public void dispose() {
+        final ScheduledFuture<?> statisticsLogJob = this.statisticsLogJob;
+        if (statisticsLogJob != null) {
+            statisticsLogJob.cancel(false);
+            this.statisticsLogJob = null;
+        }
+        logMessageStatistics();
         stop();
         try {
             unsubscribeAll().get(500, TimeUnit.MILLISECONDS);
@@ -237,6 +267,14 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler implemen
         postCommand(channelUID, command);
     }
 
+    /**
+     * Return the message statistics of this thing, like the number of received messages per second and
+     * the time spent in transformations. They are logged at debug level every few minutes.
+     */
+    public MessageStatistics getMessageStatistics() {
+        return messageStatistics;
+    }
+
     public @Nullable MqttBrokerConnection getConnection() {
         return connection;
     }
@@ -12,7 +12,6 @@
  */
 package org.openhab.binding.mqtt.generic;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Formatter;
 import java.util.IllegalFormatException;
@@ -31,6 +30,8 @@ import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.values.Value;
+import org.openhab.binding.mqtt.handler.PublishQueue;
+import org.openhab.binding.mqtt.handler.TopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +62,7 @@ public class ChannelState implements MqttMessageSubscriber {
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+    private @Nullable TopicDispatcher topicDispatcher;
 
     /**
      * Creates a new channel state.
@@ -112,6 +114,16 @@ public class ChannelState implements MqttMessageSubscriber {
         transformationsOut.clear();
     }
 
+    /**
+     * Let the given dispatcher subscribe to the state topic instead of subscribing this channel state directly.
+     * Must be set before {@link #start(MqttBrokerConnection, ScheduledExecutorService, int)} is called.
+     *
+     * @param topicDispatcher A dispatcher for the state topic of this channel or null to subscribe directly
+     */
+    public void setTopicDispatcher(@Nullable TopicDispatcher topicDispatcher) {
+        this.topicDispatcher = topicDispatcher;
+    }
+
     /**
      * Returns the cached value state object of this message subscriber.
      * <p>
@@ -139,6 +151,17 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     @Override
     public void processMessage(String topic, byte[] payload) {
+        processMessage(topic, new SharedPayload(payload));
+    }
+
+    /**
+     * Incoming message from a {@link TopicDispatcher}. The payload is shared with all other channels
+     * of the same state topic.
+     *
+     * @param topic The topic. Is the same as the field stateTopic.
+     * @param payload The shared payload
+     */
+    public void processMessage(String topic, SharedPayload payload) {
         final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
         if (channelStateUpdateListener == null) {
             logger.warn("MQTT message received for topic {}, but MessageSubscriber object hasn't been started!", topic);
@@ -146,17 +169,14 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         if (cachedValue.isBinary()) {
-            cachedValue.update(payload);
+            cachedValue.update(payload.getBytes());
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
             receivedOrTimeout();
             return;
         }
 
         // String value: Apply transformations
-        String strvalue = new String(payload, StandardCharsets.UTF_8);
-        for (ChannelStateTransformation t : transformationsIn) {
-            strvalue = t.processValue(strvalue);
-        }
+        String strvalue = payload.applyTransformations(transformationsIn);
 
         // Is trigger?: Special handling
         if (config.trigger) {
@@ -234,8 +254,18 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<@Nullable Void> stop() {
         final MqttBrokerConnection connection = this.connection;
+        final TopicDispatcher topicDispatcher = this.topicDispatcher;
         if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
-            return connection.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
+            final TopicRouter topicRouter = TopicRouter.forConnection(connection);
+            final CompletableFuture<Boolean> unsubscription;
+            if (topicDispatcher != null) {
+                unsubscription = topicDispatcher.unsubscribe(connection, this);
+            } else if (topicRouter != null) {
+                unsubscription = topicRouter.unsubscribe(config.stateTopic, this);
+            } else {
+                unsubscription = connection.unsubscribe(config.stateTopic, this);
+            }
+            return unsubscription.thenRun(this::internalStop);
         } else {
             internalStop();
             return CompletableFuture.completedFuture(null);
@@ -291,7 +321,18 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         this.future = new CompletableFuture<>();
-        connection.subscribe(config.stateTopic, this).thenRun(() -> {
+        final TopicDispatcher topicDispatcher = this.topicDispatcher;
+        final TopicRouter topicRouter = TopicRouter.forConnection(connection);
+        final CompletableFuture<Boolean> subscription;
+        if (topicDispatcher != null) {
+            subscription = topicDispatcher.subscribe(connection, this);
+        } else if (topicRouter != null) {
+            // routed through the topic trie of the broker connection
+            subscription = topicRouter.subscribe(config.stateTopic, this);
+        } else {
+            subscription = connection.subscribe(config.stateTopic, this);
+        }
+        subscription.thenRun(() -> {
             hasSubscribed = true;
             logger.debug("Subscribed channel {} to topic: {}", this.channelUID, config.stateTopic);
             if (timeout > 0 && !future.isDone()) {
@@ -320,6 +361,18 @@ public class ChannelState implements MqttMessageSubscriber {
      *         and exceptionally otherwise.
      */
     public CompletableFuture<Boolean> publishValue(Command command) {
+        return publishValue(command, null);
+    }
+
+    /**
+     * Publishes a value on MQTT via the given publish queue. A command topic needs to be set in the configuration.
+     *
+     * @param command The command to send
+     * @param publishQueue The publish queue of the broker connection or null to publish on the connection directly
+     * @return A future that completes with true if the publishing worked and false if it is a readonly topic
+     *         and exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> publishValue(Command command, @Nullable PublishQueue publishQueue) {
         cachedValue.update(command);
 
         String mqttCommandValue = cachedValue.getMQTTpublishValue();
@@ -356,6 +409,9 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         // Send retained messages if this is a stateful channel
+        if (publishQueue != null && publishQueue.getConnection() == connection) {
+            return publishQueue.publish(config.commandTopic, mqttCommandValue.getBytes(), 1, config.retained);
+        }
         return connection.publish(config.commandTopic, mqttCommandValue.getBytes(), 1, config.retained);
     }
 
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A received MQTT message that is shared by all {@link ChannelState}s of the same state topic.
+ * <p>
+ * The payload is decoded only once, and the text is kept for the dispatch of the message. The parsed document itself
+ * cannot be held here, as transformation services only accept strings and their parser libraries are private to
+ * their bundles. JSONPATH instead keeps the document it parsed from a source for as long as that source string is
+ * referenced, so a JSON payload is parsed once per message instead of once per channel, independent of other topics
+ * that are dispatched concurrently. The result of a first transformation stage is remembered as well, so channels with
+ * the same leading transformation do not evaluate it again.
+ * <p>
+ * An instance lives for the dispatch of a single message only and is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SharedPayload {
+    private final byte[] payload;
+    private @Nullable String text;
+    private final Map<String, String> firstStageResults = new HashMap<>();
+    private long transformationTime;
+
+    public SharedPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Return the raw payload.
+     */
+    public byte[] getBytes() {
+        return payload;
+    }
+
+    /**
+     * Return the payload decoded as UTF-8 text. The text is decoded on first access only.
+     */
+    public String getText() {
+        String text = this.text;
+        if (text == null) {
+            text = new String(payload, StandardCharsets.UTF_8);
+            this.text = text;
+        }
+        return text;
+    }
+
+    /**
+     * Apply the given transformations in order to the decoded payload.
+     *
+     * @param transformations The transformations of a channel
+     * @return The transformed value
+     */
+    public String applyTransformations(List<ChannelStateTransformation> transformations) {
+        String value = getText();
+        if (transformations.isEmpty()) {
+            return value;
+        }
+        final long start = System.nanoTime();
+        ChannelStateTransformation first = transformations.get(0);
+        value = firstStageResults.computeIfAbsent(first.serviceName + ':' + first.pattern,
+                k -> first.processValue(getText()));
+        for (int i = 1; i < transformations.size(); ++i) {
+            value = transformations.get(i).processValue(value);
+        }
+        transformationTime += System.nanoTime() - start;
+        return value;
+    }
+
+    /**
+     * Return the time in nanoseconds that was spent in transformations for this message.
+     */
+    public long getTransformationTime() {
+        return transformationTime;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.MessageStatistics;
+import org.openhab.binding.mqtt.handler.TopicRouter;
+
+/**
+ * Subscribes once to a state topic on behalf of all {@link ChannelState}s of a Thing that share this topic.
+ * <p>
+ * Each received message is wrapped into a {@link SharedPayload} and handed to all registered channel states in turn,
+ * so the payload is decoded and parsed once per message. The number of messages and the time spent in
+ * transformations are reported to the {@link MessageStatistics} of the Thing.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TopicDispatcher implements MqttMessageSubscriber {
+    private final String topic;
+    private final MessageStatistics statistics;
+    private final List<ChannelState> channelStates = new CopyOnWriteArrayList<>();
+    private @Nullable CompletableFuture<Boolean> subscription;
+
+    /**
+     * Creates a dispatcher for the given state topic.
+     *
+     * @param topic The state topic
+     * @param statistics The message statistics of the Thing
+     */
+    public TopicDispatcher(String topic, MessageStatistics statistics) {
+        this.topic = topic;
+        this.statistics = statistics;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Register the channel state and subscribe to the topic, if this is the first registered channel state.
+     *
+     * @param connection A broker connection
+     * @param channelState The channel state
+     * @return A future that completes with true if the subscription succeeded. All channel states of the same topic
+     *         share the future of the first subscription.
+     */
+    public synchronized CompletableFuture<Boolean> subscribe(MqttBrokerConnection connection,
+            ChannelState channelState) {
+        if (!channelStates.contains(channelState)) {
+            channelStates.add(channelState);
+        }
+        CompletableFuture<Boolean> subscription = this.subscription;
+        if (subscription == null || subscription.isCompletedExceptionally()) {
+            final TopicRouter topicRouter = TopicRouter.forConnection(connection);
+            subscription = topicRouter != null ? topicRouter.subscribe(topic, this) : connection.subscribe(topic, this);
+            this.subscription = subscription;
+        }
+        return subscription;
+    }
+
+    /**
+     * Remove the channel state and unsubscribe from the topic, if it was the last registered channel state.
+     *
+     * @param connection A broker connection
+     * @param channelState The channel state
+     * @return A future that completes with true if unsubscribing succeeded or was not necessary.
+     */
+    public synchronized CompletableFuture<Boolean> unsubscribe(MqttBrokerConnection connection,
+            ChannelState channelState) {
+        channelStates.remove(channelState);
+        if (!channelStates.isEmpty() || subscription == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        subscription = null;
+        final TopicRouter topicRouter = TopicRouter.forConnection(connection);
+        return topicRouter != null ? topicRouter.unsubscribe(topic, this) : connection.unsubscribe(topic, this);
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        SharedPayload sharedPayload = new SharedPayload(payload);
+        for (ChannelState channelState : channelStates) {
+            channelState.processMessage(topic, sharedPayload);
+        }
+        statistics.messageProcessed(sharedPayload.getTransformationTime());
+    }
+}
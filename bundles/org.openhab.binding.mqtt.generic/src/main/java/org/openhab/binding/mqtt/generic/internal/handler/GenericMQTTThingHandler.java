@@ -37,6 +37,7 @@ import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.ChannelStateTransformation;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
+import org.openhab.binding.mqtt.generic.TopicDispatcher;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.generic.values.ValueFactory;
@@ -52,6 +53,7 @@ import org.slf4j.LoggerFactory;
 public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements ChannelStateUpdateListener {
     private final Logger logger = LoggerFactory.getLogger(GenericMQTTThingHandler.class);
     final Map<ChannelUID, ChannelState> channelStateByChannelUID = new HashMap<>();
+    final Map<String, TopicDispatcher> topicDispatcherByTopic = new HashMap<>();
     protected final MqttChannelStateDescriptionProvider stateDescProvider;
     protected final TransformationServiceProvider transformationServiceProvider;
 
@@ -101,6 +103,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
         channelStateByChannelUID.forEach((uid, state) -> stateDescProvider.remove(uid));
         channelStateByChannelUID.clear();
         super.dispose();
+        topicDispatcherByTopic.clear();
     }
 
     @Override
@@ -112,6 +115,9 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
     /**
      * For every Thing channel there exists a corresponding {@link ChannelState}. It consists of the MQTT state
      * and MQTT command topic, the ChannelUID and a value state.
+     * <p>
+     * All channel states with the same state topic share a {@link TopicDispatcher}, so that a received message
+     * is decoded and parsed only once for all of them.
      *
      * @param channelConfig The channel configuration that contains MQTT state and command topic and multiple other
      *            configurations.
@@ -121,6 +127,10 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
      */
     protected ChannelState createChannelState(ChannelConfig channelConfig, ChannelUID channelUID, Value valueState) {
         ChannelState state = new ChannelState(channelConfig, channelUID, valueState, this);
+        if (StringUtils.isNotBlank(channelConfig.stateTopic)) {
+            state.setTopicDispatcher(topicDispatcherByTopic.computeIfAbsent(channelConfig.stateTopic,
+                    topic -> new TopicDispatcher(topic, messageStatistics)));
+        }
         String[] transformations;
 
         // Incoming value transformations
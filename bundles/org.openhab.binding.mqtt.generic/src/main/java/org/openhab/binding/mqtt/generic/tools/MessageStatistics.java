@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Counts received MQTT messages and the time spent in transformations.
+ * <p>
+ * The message rate is determined over windows of one second: The first message after a window has passed computes
+ * the rate of that window and starts a new one. All methods are thread safe and do not block.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MessageStatistics {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder transformationTime = new LongAdder();
+    private final LongAdder windowMessages = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile double messagesPerSecond;
+
+    /**
+     * Record a processed message.
+     *
+     * @param transformationNanos The time in nanoseconds spent in transformations for this message
+     */
+    public void messageProcessed(long transformationNanos) {
+        messages.increment();
+        transformationTime.add(transformationNanos);
+        windowMessages.increment();
+
+        final long now = System.nanoTime();
+        final long start = windowStart.get();
+        final long elapsed = now - start;
+        if (elapsed >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            messagesPerSecond = windowMessages.sumThenReset() * (double) WINDOW_NANOS / elapsed;
+        }
+    }
+
+    /**
+     * Return the total number of processed messages.
+     */
+    public long getMessageCount() {
+        return messages.sum();
+    }
+
+    /**
+     * Return the message rate of the last completed one second window.
+     */
+    public double getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+    /**
+     * Return the total time in milliseconds that was spent in transformations.
+     */
+    public long getTransformationTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(transformationTime.sum());
+    }
+
+    /**
+     * Return the average time in microseconds that was spent in transformations per message.
+     */
+    public double getAverageTransformationTimeMicros() {
+        final long count = messages.sum();
+        return count == 0 ? 0 : transformationTime.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void reset() {
+        messages.reset();
+        transformationTime.reset();
+        windowMessages.reset();
+        windowStart.set(System.nanoTime());
+        messagesPerSecond = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d messages, %.1f messages/s, %.1f us transformation time per message",
+                getMessageCount(), getMessagesPerSecond(), getAverageTransformationTimeMicros());
+    }
+}
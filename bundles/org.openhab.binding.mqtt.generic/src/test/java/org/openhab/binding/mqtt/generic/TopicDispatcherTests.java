@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openhab.binding.mqtt.generic.tools.MessageStatistics;
+import org.openhab.binding.mqtt.generic.values.TextValue;
+
+/**
+ * Tests the {@link TopicDispatcher} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicDispatcherTests {
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private ChannelStateUpdateListener channelStateUpdateListener;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private TransformationService jsonPathService;
+
+    @Mock
+    private TransformationServiceProvider transformationServiceProvider;
+
+    private final ChannelConfig config = ChannelConfigBuilder.create("state", "command").build();
+
+    private final MessageStatistics statistics = new MessageStatistics();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        when(transformationServiceProvider.getTransformationService(anyString())).thenReturn(jsonPathService);
+    }
+
+    private ChannelState createChannelState(String channelId, TopicDispatcher dispatcher) {
+        ChannelState c = new ChannelState(config, new ChannelUID("a:b:c:" + channelId), new TextValue(),
+                channelStateUpdateListener);
+        c.addTransformation(new ChannelStateTransformation("JSONPATH", "$.temperature", transformationServiceProvider));
+        c.setTopicDispatcher(dispatcher);
+        return c;
+    }
+
+    @Test
+    public void subscribeOncePerTopic() throws Exception {
+        TopicDispatcher dispatcher = new TopicDispatcher("state", statistics);
+        ChannelState c1 = createChannelState("one", dispatcher);
+        ChannelState c2 = createChannelState("two", dispatcher);
+
+        c1.start(connection, scheduler, 0).get();
+        c2.start(connection, scheduler, 0).get();
+        verify(connection, times(1)).subscribe(eq("state"), eq(dispatcher));
+
+        c1.stop().get();
+        verify(connection, times(0)).unsubscribe(any(), any());
+        c2.stop().get();
+        verify(connection, times(1)).unsubscribe(eq("state"), eq(dispatcher));
+    }
+
+    @Test
+    public void transformSharedPayloadOnce() throws Exception {
+        final String json = "{\"temperature\": 23.2}";
+        when(jsonPathService.transform("$.temperature", json)).thenReturn("23.2");
+
+        TopicDispatcher dispatcher = new TopicDispatcher("state", statistics);
+        ChannelState c1 = createChannelState("one", dispatcher);
+        ChannelState c2 = createChannelState("two", dispatcher);
+        c1.start(connection, scheduler, 0).get();
+        c2.start(connection, scheduler, 0).get();
+
+        dispatcher.processMessage("state", json.getBytes());
+
+        verify(jsonPathService, times(1)).transform(eq("$.temperature"), eq(json));
+        verify(channelStateUpdateListener).updateChannelState(eq(c1.channelUID()),
+                argThat(arg -> "23.2".equals(arg.toString())));
+        verify(channelStateUpdateListener).updateChannelState(eq(c2.channelUID()),
+                argThat(arg -> "23.2".equals(arg.toString())));
+        assertThat(statistics.getMessageCount(), is(1L));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * Tests the {@link DelayedBatchProcessing} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        doReturn(scheduledFuture).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        // Run immediate deliveries synchronously
+        doAnswer(i -> {
+            ((Runnable) i.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void armOnceAndDeliverOnDelay() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(100, batches::add, scheduler);
+        processing.accept("a");
+        processing.accept("b");
+        assertTrue(processing.isArmed());
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+
+        processing.forceProcessNow();
+        assertFalse(processing.isArmed());
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+
+        // The next object arms the timer again
+        processing.accept("c");
+        assertTrue(processing.isArmed());
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void deliverOnMaxBatchSize() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(100, 3, batches::add, scheduler);
+        processing.accept("a");
+        processing.accept("b");
+        assertThat(batches.size(), is(0));
+        processing.accept("c");
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b", "c"))));
+
+        processing.accept("d");
+        assertThat(processing.join(), is(Arrays.asList("d")));
+        assertThat(batches.size(), is(1));
+    }
+}
@@ -227,6 +227,20 @@ public abstract class AbstractComponent<C extends BaseChannelConfiguration> {
         return configHash;
     }
 
+    /**
+     * @return Returns the configuration string this component was created from.
+     */
+    public String getConfigJSON() {
+        return channelConfigurationJson;
+    }
+
+    /**
+     * @return Returns the HomeAssistant topic ID this component was configured with.
+     */
+    public HaID getHaID() {
+        return haID;
+    }
+
     /**
      * Return the channel group type.
      */
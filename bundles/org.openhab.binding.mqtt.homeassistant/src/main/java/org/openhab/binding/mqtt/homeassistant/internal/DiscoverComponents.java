@@ -62,6 +62,17 @@ public class DiscoverComponents implements MqttMessageSubscriber {
      */
     public static interface ComponentDiscovered {
         void componentDiscovered(HaID homeAssistantTopicID, AbstractComponent<?> component);
+
+        /**
+         * Called before a received configuration is parsed. Return true if a component with exactly this
+         * configuration is already known, to skip parsing and {@link #componentDiscovered(HaID, AbstractComponent)}.
+         *
+         * @param homeAssistantTopicID The HomeAssistant topic ID of the configuration
+         * @param config The configuration string
+         */
+        default boolean componentConfigUnchanged(HaID homeAssistantTopicID, String config) {
+            return false;
+        }
     }
 
     /**
@@ -92,6 +103,13 @@ public class DiscoverComponents implements MqttMessageSubscriber {
 
         AbstractComponent<?> component = null;
 
+        if (discoveredListener != null && config.length() > 0
+                && discoveredListener.componentConfigUnchanged(haID, config)) {
+            logger.trace("Configuration of HomeAssistant thing {} component {} unchanged", haID.objectID,
+                    haID.component);
+            return;
+        }
+
         if (config.length() > 0) {
             component = CFactory.createComponent(thingUID, haID, config, updateListener, gson,
                     transformationServiceProvider);
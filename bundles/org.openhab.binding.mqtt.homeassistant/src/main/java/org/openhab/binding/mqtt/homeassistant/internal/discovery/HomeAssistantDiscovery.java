@@ -13,6 +13,8 @@
 package org.openhab.binding.mqtt.homeassistant.internal.discovery;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,9 +34,12 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
 import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
+import org.eclipse.smarthome.core.storage.Storage;
+import org.eclipse.smarthome.core.storage.StorageService;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.type.ThingType;
+import org.eclipse.smarthome.core.util.HexUtils;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.discovery.AbstractMQTTDiscovery;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryService;
@@ -69,6 +74,18 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
+    private @Nullable Storage<DiscoveredConfig> configCache;
+
+    /**
+     * The parts of a component configuration that make up a discovery result. Stored per config topic, together
+     * with the SHA-256 digest of the configuration, so that unchanged retained configurations are not parsed again.
+     */
+    public static class DiscoveredConfig {
+        public String configDigest = "";
+        public String thingID = "";
+        public String thingName = "";
+        public Map<String, String> properties = new HashMap<>();
+    }
 
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
@@ -107,6 +124,16 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         this.mqttTopicDiscovery = null;
     }
 
+    @Reference
+    public void setStorageService(StorageService storageService) {
+        configCache = storageService.getStorage(HomeAssistantDiscovery.class.getName(),
+                HomeAssistantDiscovery.class.getClassLoader());
+    }
+
+    public void unsetStorageService(StorageService storageService) {
+        configCache = null;
+    }
+
     @Override
     protected MQTTTopicDiscoveryService getDiscoveryService() {
         return mqttTopicDiscovery;
@@ -145,15 +172,14 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         }
         this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
 
-        BaseChannelConfiguration config = BaseChannelConfiguration
-                .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+        final DiscoveredConfig config = getDiscoveredConfig(topic, new String(payload, StandardCharsets.UTF_8));
 
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
         // easily recognize object capabilities.
 
         HaID haID = new HaID(topic);
-        final String thingID = config.getThingId(haID.objectID);
+        final String thingID = config.thingID;
 
         final ThingTypeUID typeID = new ThingTypeUID(MqttBindingConstants.BINDING_ID,
                 MqttBindingConstants.HOMEASSISTANT_MQTT_THING.getId() + "_" + thingID);
@@ -174,14 +200,56 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         Map<String, Object> properties = new HashMap<>();
         HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
         properties = handlerConfig.appendToProperties(properties);
-        properties = config.appendToProperties(properties);
+        properties.putAll(config.properties);
 
         synchronized (results) {
             // Because we need the new properties map with the updated "components" list
             results.put(thingUID.getAsString(),
                     DiscoveryResultBuilder.create(thingUID).withProperties(properties)
                             .withRepresentationProperty("objectid").withBridge(connectionBridge)
-                            .withLabel(config.getThingName() + " (" + componentNames + ")").build());
+                            .withLabel(config.thingName + " (" + componentNames + ")").build());
+        }
+    }
+
+    /**
+     * Return the discovery relevant parts of a component configuration. The configuration is only parsed if its
+     * content differs from the one that was last seen on the same topic, also across restarts.
+     *
+     * @param topic The config topic
+     * @param configJSON The component configuration
+     * @return The discovery relevant parts of the configuration
+     */
+    protected DiscoveredConfig getDiscoveredConfig(String topic, String configJSON) {
+        final Storage<DiscoveredConfig> configCache = this.configCache;
+        final String configDigest = digest(configJSON);
+        if (configCache != null) {
+            final DiscoveredConfig cached = configCache.get(topic);
+            if (cached != null && configDigest.equals(cached.configDigest)) {
+                return cached;
+            }
+        }
+
+        final BaseChannelConfiguration channelConfig = BaseChannelConfiguration.fromString(configJSON, gson);
+        final DiscoveredConfig config = new DiscoveredConfig();
+        config.configDigest = configDigest;
+        config.thingID = channelConfig.getThingId(new HaID(topic).objectID);
+        config.thingName = channelConfig.getThingName();
+        channelConfig.appendToProperties(new HashMap<>())
+                .forEach((key, value) -> config.properties.put(key, value.toString()));
+
+        if (configCache != null) {
+            configCache.put(topic, config);
+        }
+        return config;
+    }
+
+    private static String digest(String configJSON) {
+        try {
+            return HexUtils.bytesToHex(
+                    MessageDigest.getInstance("SHA-256").digest(configJSON.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
         }
     }
 
@@ -207,6 +275,10 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
+        final Storage<DiscoveredConfig> configCache = this.configCache;
+        if (configCache != null) {
+            configCache.remove(topic);
+        }
         if (thingIDPerTopic.containsKey(topic)) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
             final String thingID = thingUID.getId();
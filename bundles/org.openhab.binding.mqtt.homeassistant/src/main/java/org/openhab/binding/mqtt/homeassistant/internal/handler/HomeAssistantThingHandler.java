@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -90,6 +91,8 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
 
     private final Gson gson;
     protected final Map<String, AbstractComponent<?>> haComponents = new HashMap<>();
+    /** Known components by their config topic, to recognize unchanged retained configurations before parsing */
+    protected final Map<String, AbstractComponent<?>> haComponentsByConfigTopic = new ConcurrentHashMap<>();
 
     protected HandlerConfiguration config = new HandlerConfiguration();
     private Set<HaID> discoveryHomeAssistantIDs = new HashSet<>();
@@ -160,6 +163,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
 
             if (component != null) {
                 haComponents.put(component.uid().getId(), component);
+                haComponentsByConfigTopic.put(haID.getTopic("config"), component);
                 component.addChannelTypes(channelTypeProvider);
             } else {
                 logger.warn("Could not restore component {}", thing);
@@ -252,6 +256,22 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         delayedProcessing.accept(component);
     }
 
+    /**
+     * Callback of {@link DiscoverComponents}. Retained configurations are received again on every (re)connect,
+     * recognize those that did not change to avoid parsing and recreating the component. The component counts as seen
+     * again, which may bring the Thing online.
+     */
+    @Override
+    public boolean componentConfigUnchanged(HaID homeAssistantTopicID, String config) {
+        AbstractComponent<?> known = haComponentsByConfigTopic.get(homeAssistantTopicID.getTopic("config"));
+        if (known != null && known.getConfigJSON().equals(config)) {
+            known.setConfigSeen();
+            updateThingStatus();
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Callback of {@link DelayedBatchProcessing}.
      * Add all newly discovered components to the Thing and start the components.
@@ -283,6 +303,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
                 discovered.addChannelTypes(channelTypeProvider);
                 // Add component to the component map
                 haComponents.put(discovered.uid().getId(), discovered);
+                haComponentsByConfigTopic.put(discovered.getHaID().getTopic("config"), discovered);
                 // Start component / Subscribe to channel topics
                 discovered.start(connection, scheduler, 0).exceptionally(e -> {
                     logger.warn("Failed to start component {}", discovered.uid(), e);
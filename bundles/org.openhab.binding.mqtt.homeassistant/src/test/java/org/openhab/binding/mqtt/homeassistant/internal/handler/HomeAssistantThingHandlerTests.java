@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.mqtt.homeassistant.internal.handler.ThingChannelConstants.testHomeAssistantThing;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingStatusInfo;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.thing.type.ThingTypeRegistry;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
+import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
+import org.openhab.binding.mqtt.homeassistant.internal.AbstractComponent;
+import org.openhab.binding.mqtt.homeassistant.internal.CChannel;
+import org.openhab.binding.mqtt.homeassistant.internal.CFactory;
+import org.openhab.binding.mqtt.homeassistant.internal.ChannelConfigurationTypeAdapterFactory;
+import org.openhab.binding.mqtt.homeassistant.internal.HaID;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests cases for {@link HomeAssistantThingHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomeAssistantThingHandlerTests {
+    private static final String CONFIG_TOPIC = "homeassistant/switch/lock/config";
+    private static final String CONFIG = "{\"name\":\"Lock\",\"state_topic\":\"zigbee2mqtt/lock/state\","
+            + "\"command_topic\":\"zigbee2mqtt/lock/set\"}";
+
+    @Mock
+    private ThingHandlerCallback callback;
+
+    @Mock
+    private AbstractBrokerHandler bridgeHandler;
+
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private TransformationServiceProvider transformationServiceProvider;
+
+    @Mock
+    private ThingTypeRegistry thingTypeRegistry;
+
+    private Thing thing;
+
+    private HomeAssistantThingHandler thingHandler;
+
+    @Before
+    public void setUp() {
+        final ThingStatusInfo bridgeStatus = new ThingStatusInfo(ThingStatus.ONLINE, ThingStatusDetail.NONE, null);
+
+        MockitoAnnotations.initMocks(this);
+
+        // The channels of a component that has been discovered before the restart
+        final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory())
+                .create();
+        final AbstractComponent<?> component = CFactory.createComponent(testHomeAssistantThing, new HaID(CONFIG_TOPIC),
+                CONFIG, mock(ChannelStateUpdateListener.class), gson, transformationServiceProvider);
+        final List<Channel> channels = component.channelTypes().values().stream().map(CChannel::getChannel)
+                .collect(Collectors.toList());
+
+        final Configuration config = new Configuration();
+        config.put("basetopic", "homeassistant");
+        config.put("topics", Collections.singletonList("switch/lock"));
+        thing = ThingBuilder.create(MqttBindingConstants.HOMEASSISTANT_MQTT_THING, testHomeAssistantThing.getId())
+                .withConfiguration(config).withChannels(channels).build();
+
+        when(bridgeHandler.getConnectionAsync()).thenReturn(CompletableFuture.completedFuture(connection));
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+
+        thingHandler = spy(new HomeAssistantThingHandler(thing, new MqttChannelTypeProvider(thingTypeRegistry),
+                transformationServiceProvider, 30, 5));
+        thingHandler.setCallback(callback);
+
+        doReturn(bridgeHandler).when(thingHandler).getBridgeHandler();
+        doReturn(bridgeStatus).when(thingHandler).getBridgeStatus();
+    }
+
+    @Test
+    public void unchangedConfigurationAfterRestartBringsThingOnline() {
+        thingHandler.initialize();
+        verify(callback).statusUpdated(eq(thing), argThat(arg -> arg.getStatus().equals(ThingStatus.OFFLINE)
+                && arg.getStatusDetail().equals(ThingStatusDetail.GONE)));
+
+        // The broker sends the retained configuration again
+        assertThat(thingHandler.componentConfigUnchanged(new HaID(CONFIG_TOPIC), CONFIG), is(true));
+        verify(callback).statusUpdated(eq(thing), argThat(arg -> arg.getStatus().equals(ThingStatus.ONLINE)));
+    }
+
+    @Test
+    public void changedConfigurationIsParsedAgain() {
+        thingHandler.initialize();
+
+        final String changedConfig = CONFIG.replace("Lock", "Door lock");
+        assertThat(thingHandler.componentConfigUnchanged(new HaID(CONFIG_TOPIC), changedConfig), is(false));
+        verify(callback, never()).statusUpdated(eq(thing),
+                argThat(arg -> arg.getStatus().equals(ThingStatus.ONLINE)));
+    }
+}
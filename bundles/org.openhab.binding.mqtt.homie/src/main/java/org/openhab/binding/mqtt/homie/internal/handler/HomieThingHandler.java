@@ -50,6 +50,8 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class HomieThingHandler extends AbstractMQTTThingHandler implements DeviceCallback, Consumer<List<Object>> {
     private final Logger logger = LoggerFactory.getLogger(HomieThingHandler.class);
+    /** Deliver nodes and properties at the latest after this many changes, even if the device keeps publishing */
+    private static final int MAX_BATCH_SIZE = 500;
     protected Device device;
     protected final MqttChannelTypeProvider channelTypeProvider;
     /** The timeout per attribute field subscription */
@@ -76,7 +78,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         this.channelTypeProvider = channelTypeProvider;
         this.subscribeTimeout = subscribeTimeout;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, this, scheduler);
+        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, MAX_BATCH_SIZE, this, scheduler);
         this.device = new Device(this.thing.getUID(), this, new DeviceAttributes());
     }
 
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.mqtt.action;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.thing.binding.ThingActions;
@@ -19,6 +21,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingActionsScope;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
+import org.openhab.binding.mqtt.handler.PublishQueue;
 import org.openhab.core.automation.annotation.ActionInput;
 import org.openhab.core.automation.annotation.RuleAction;
 import org.slf4j.Logger;
@@ -79,7 +82,11 @@ public class MQTTActions implements ThingActions {
         if (retain == null) {
             retain = connection.isRetain();
         }
-        connection.publish(topic, value.getBytes(), connection.getQos(), retain).thenRun(() -> {
+        final PublishQueue publishQueue = brokerHandler.getPublishQueue();
+        final CompletableFuture<Boolean> future = publishQueue != null
+                ? publishQueue.publish(topic, value.getBytes(), connection.getQos(), retain)
+                : connection.publish(topic, value.getBytes(), connection.getQos(), retain);
+        future.thenRun(() -> {
             logger.debug("MQTT publish to {} performed", topic);
         }).exceptionally(e -> {
             logger.warn("MQTT publish to {} failed!", topic);
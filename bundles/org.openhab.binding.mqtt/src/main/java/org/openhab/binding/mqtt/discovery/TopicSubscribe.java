@@ -15,9 +15,11 @@ package org.openhab.binding.mqtt.discovery;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.handler.TopicRouter;
 
 /**
  * Represents a MQTT subscription for one specific topic. This is an immutable class.
@@ -30,6 +32,7 @@ public class TopicSubscribe implements MqttMessageSubscriber {
     final ThingUID thing;
     final String topic;
     final MQTTTopicDiscoveryParticipant topicDiscoveredListener;
+    final @Nullable TopicRouter router;
 
     /**
      * Creates a {@link TopicSubscribe} object.
@@ -41,10 +44,25 @@ public class TopicSubscribe implements MqttMessageSubscriber {
      */
     public TopicSubscribe(MqttBrokerConnection connection, String topic,
             MQTTTopicDiscoveryParticipant topicDiscoveredListener, ThingUID thing) {
+        this(connection, topic, topicDiscoveredListener, thing, null);
+    }
+
+    /**
+     * Creates a {@link TopicSubscribe} object that subscribes via the given router.
+     *
+     * @param connection The broker connection
+     * @param topic The topic
+     * @param topicDiscoveredListener A listener
+     * @param thing A thing, used as an argument to the listener callback.
+     * @param router A topic router of the broker connection or null to subscribe on the connection directly
+     */
+    public TopicSubscribe(MqttBrokerConnection connection, String topic,
+            MQTTTopicDiscoveryParticipant topicDiscoveredListener, ThingUID thing, @Nullable TopicRouter router) {
         this.connection = connection;
         this.thing = thing;
         this.topic = topic;
         this.topicDiscoveredListener = topicDiscoveredListener;
+        this.router = router;
     }
 
     @Override
@@ -62,6 +80,10 @@ public class TopicSubscribe implements MqttMessageSubscriber {
      * @return Completes with true if successful. Completes with false if not connected yet. Exceptionally otherwise.
      */
     public CompletableFuture<Boolean> start() {
+        final TopicRouter router = this.router;
+        if (router != null) {
+            return router.subscribe(topic, this);
+        }
         return connection.subscribe(topic, this);
     }
 
@@ -71,6 +93,10 @@ public class TopicSubscribe implements MqttMessageSubscriber {
      * @return Completes with true if successful. Exceptionally otherwise.
      */
     public CompletableFuture<Boolean> stop() {
+        final TopicRouter router = this.router;
+        if (router != null) {
+            return router.unsubscribe(topic, this);
+        }
         return connection.unsubscribe(topic, this);
     }
 }
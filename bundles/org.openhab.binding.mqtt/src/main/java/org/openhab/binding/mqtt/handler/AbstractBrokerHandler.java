@@ -53,6 +53,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
+    private @Nullable PublishQueue publishQueue;
 
     public AbstractBrokerHandler(Bridge thing) {
         super(thing);
@@ -78,6 +79,36 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         return connection;
     }
 
+    /**
+     * Returns the {@link TopicRouter} of the underlying {@link MqttBrokerConnection}. Subscribers that register
+     * via the router share a few covering subscriptions on the connection.
+     *
+     * @return The router or null if there is no connection yet
+     */
+    public @Nullable TopicRouter getTopicRouter() {
+        final MqttBrokerConnection connection = this.connection;
+        return connection == null ? null : TopicRouter.forConnection(connection);
+    }
+
+    /**
+     * Returns a {@link PublishQueue} for the underlying {@link MqttBrokerConnection}. Messages that are published
+     * via the queue are pipelined and waiting retained messages to the same topic are de-duplicated.
+     *
+     * @return The publish queue or null if there is no connection yet
+     */
+    public synchronized @Nullable PublishQueue getPublishQueue() {
+        final MqttBrokerConnection connection = this.connection;
+        if (connection == null) {
+            return null;
+        }
+        PublishQueue publishQueue = this.publishQueue;
+        if (publishQueue == null || publishQueue.getConnection() != connection) {
+            publishQueue = new PublishQueue(connection, scheduler);
+            this.publishQueue = publishQueue;
+        }
+        return publishQueue;
+    }
+
     /**
      * Does nothing in the base implementation.
      */
@@ -103,6 +134,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
             channelStateByChannelUID.put(channel.getUID(), c);
         }
 
+        TopicRouter.register(connection);
         connection.addConnectionObserver(this);
 
         connection.start().exceptionally(e -> {
@@ -145,13 +177,18 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
     public void dispose() {
         channelStateByChannelUID.values().forEach(c -> c.stop());
         channelStateByChannelUID.clear();
+        final MqttBrokerConnection connection = this.connection;
         if (connection != null) {
             connection.removeConnectionObserver(this);
+            TopicRouter.unregister(connection);
         } else {
             logger.warn("Trying to dispose handler {} but connection is already null. Most likely this is a bug.",
                     thing.getUID());
         }
         this.connection = null;
+        synchronized (this) {
+            this.publishQueue = null;
+        }
         connectionFuture = new CompletableFuture<>();
         super.dispose();
     }
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+
+/**
+ * Queues outgoing messages of a {@link MqttBrokerConnection} and pipelines them.
+ * <p>
+ * Up to {@link #DEFAULT_MAX_IN_FLIGHT} messages are handed to the connection without waiting for their
+ * acknowledgement, further messages wait in the queue. This keeps bursts of publishes, like a scene that switches
+ * many lights, below the in-flight limit of the MQTT client. A message that is not acknowledged within
+ * {@link #DEFAULT_TIMEOUT_MILLIS} fails with a {@link TimeoutException} and frees its slot.
+ * <p>
+ * A retained message replaces a waiting retained message with the same topic and QoS, because only the last value
+ * would be kept by the broker anyway. The futures of both publishes complete with the result of the remaining one.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PublishQueue {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10;
+    public static final int DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    private static class PendingPublish {
+        final String topic;
+        final int qos;
+        final boolean retain;
+        final long enqueued = System.nanoTime();
+        final List<CompletableFuture<Boolean>> futures = new ArrayList<>(1);
+        byte[] payload;
+
+        PendingPublish(String topic, byte[] payload, int qos, boolean retain) {
+            this.topic = topic;
+            this.payload = payload;
+            this.qos = qos;
+            this.retain = retain;
+        }
+    }
+
+    private final MqttBrokerConnection connection;
+    private final int maxInFlight;
+    private final ScheduledExecutorService scheduler;
+    private final int timeoutMillis;
+    // Number of sendNext() calls that the sending thread has not caught up with yet
+    private final AtomicInteger sendRequests = new AtomicInteger();
+
+    // Guarded by this
+    private final Queue<PendingPublish> queue = new ArrayDeque<>();
+    private final Map<String, PendingPublish> waitingRetained = new HashMap<>();
+    private int inFlight;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder latency = new LongAdder();
+
+    public PublishQueue(MqttBrokerConnection connection, ScheduledExecutorService scheduler) {
+        this(connection, DEFAULT_MAX_IN_FLIGHT, scheduler, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a publish queue.
+     *
+     * @param connection The broker connection
+     * @param maxInFlight The number of messages that are published without waiting for an acknowledgement
+     * @param scheduler A scheduler for the publish timeouts
+     * @param timeoutMillis The time in milliseconds after which a message that is not acknowledged fails
+     */
+    public PublishQueue(MqttBrokerConnection connection, int maxInFlight, ScheduledExecutorService scheduler,
+            int timeoutMillis) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("At least one message need to be in flight!");
+        }
+        this.connection = connection;
+        this.maxInFlight = maxInFlight;
+        this.scheduler = scheduler;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public MqttBrokerConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Queue a message for publishing.
+     *
+     * @param topic The topic
+     * @param payload The message payload
+     * @param qos The quality of service for this message
+     * @param retain Set to true to retain the message on the broker
+     * @return Completes with true if successful. Completes with false if not connected. Exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> publish(String topic, byte[] payload, int qos, boolean retain) {
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        synchronized (this) {
+            final @Nullable PendingPublish waiting = retain ? waitingRetained.get(topic) : null;
+            if (waiting != null && waiting.qos == qos) {
+                waiting.payload = payload;
+                waiting.futures.add(future);
+                deduplicated.increment();
+                return future;
+            }
+            PendingPublish pending = new PendingPublish(topic, payload, qos, retain);
+            pending.futures.add(future);
+            queue.add(pending);
+            if (retain) {
+                waitingRetained.put(topic, pending);
+            }
+        }
+        sendNext();
+        return future;
+    }
+
+    /**
+     * Hand waiting messages to the connection. Only one thread sends at a time. A call while another thread, or a
+     * publish that completed synchronously on the sending thread, is sending makes that thread check the queue again,
+     * so that the stack does not grow with the number of queued messages.
+     */
+    private void sendNext() {
+        if (sendRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            sendAvailable();
+            requests = sendRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private void sendAvailable() {
+        while (true) {
+            final PendingPublish pending;
+            final byte[] payload;
+            synchronized (this) {
+                if (inFlight >= maxInFlight) {
+                    return;
+                }
+                final @Nullable PendingPublish next = queue.poll();
+                if (next == null) {
+                    return;
+                }
+                pending = next;
+                if (pending.retain) {
+                    waitingRetained.remove(pending.topic, pending);
+                }
+                payload = pending.payload;
+                ++inFlight;
+            }
+            final AtomicBoolean completed = new AtomicBoolean();
+            final ScheduledFuture<?> timeout = scheduler.schedule(
+                    () -> complete(pending, completed, false,
+                            new TimeoutException("No acknowledgement for message on topic " + pending.topic)),
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+            connection.publish(pending.topic, payload, pending.qos, pending.retain).whenComplete((result, e) -> {
+                timeout.cancel(false);
+                complete(pending, completed, result, e);
+            });
+        }
+    }
+
+    private void complete(PendingPublish pending, AtomicBoolean completed, Boolean result, @Nullable Throwable e) {
+        // Either the acknowledgement or the timeout frees the slot, whatever comes first
+        if (!completed.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            --inFlight;
+        }
+        published.increment();
+        latency.add(System.nanoTime() - pending.enqueued);
+        for (CompletableFuture<Boolean> future : pending.futures) {
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(result);
+            }
+        }
+        sendNext();
+    }
+
+    /**
+     * Return the number of messages that wait for being published.
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Return the number of messages that are published but not yet acknowledged.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Return the number of published messages.
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Return the number of retained messages that were replaced by a newer message to the same topic.
+     */
+    public long getDeduplicatedCount() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Return the average time in milliseconds from queueing a message until it was acknowledged.
+     */
+    public double getAverageLatencyMillis() {
+        final long count = published.sum();
+        return count == 0 ? 0 : latency.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1) / count;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.internal.TopicTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Routes messages of a {@link MqttBrokerConnection} to subscribers with the help of a topic trie.
+ * <p>
+ * For topic filters that start with a literal level, the router does not subscribe the filters of its subscribers on
+ * the connection. It subscribes one covering filter per first topic level instead ("homie/#" for
+ * "homie/device/+/state"), so that the connection only has to match a message against a handful of filters. A
+ * received message is then matched against the topic filters of the subscribers in time proportional to the topic
+ * depth. Covering filters never overlap, so every subscriber is called once per message.
+ * <p>
+ * Some topic filters are subscribed on the connection as they are:
+ * <ul>
+ * <li>Filters starting with a wildcard, as covering them would subscribe all topics of the broker.
+ * <li>Filters of subscribers that join a covering subscription after the broker has acknowledged it. The broker only
+ * sends retained messages for a new subscription, so such a subscriber gets its own.
+ * </ul>
+ * <p>
+ * Broker handlers register a router for their connection, see {@link #forConnection(MqttBrokerConnection)}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TopicRouter {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+    private static final Map<MqttBrokerConnection, TopicRouter> ROUTERS = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(TopicRouter.class);
+    private final MqttBrokerConnection connection;
+    private final TopicTrie<MqttMessageSubscriber> subscribers = new TopicTrie<>();
+    private final Map<String, Cover> covers = new ConcurrentHashMap<>();
+    // Subscribers per topic filter that are subscribed on the connection as they are, guarded by this
+    private final Map<String, Set<MqttMessageSubscriber>> directSubscribers = new HashMap<>();
+
+    /**
+     * A covering subscription on the broker connection.
+     */
+    private class Cover implements MqttMessageSubscriber {
+        final String filter;
+        volatile boolean subscribed;
+        CompletableFuture<Boolean> subscription = new CompletableFuture<>();
+
+        Cover(String filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            subscribers.match(topic, subscriber -> deliver(subscriber, topic, payload));
+        }
+    }
+
+    public TopicRouter(MqttBrokerConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Returns the router that has been registered for the given connection.
+     *
+     * @param connection A broker connection
+     * @return The router or null if the connection is not used by a broker handler
+     */
+    public static @Nullable TopicRouter forConnection(MqttBrokerConnection connection) {
+        return ROUTERS.get(connection);
+    }
+
+    static TopicRouter register(MqttBrokerConnection connection) {
+        return ROUTERS.computeIfAbsent(connection, TopicRouter::new);
+    }
+
+    static void unregister(MqttBrokerConnection connection) {
+        ROUTERS.remove(connection);
+    }
+
+    public MqttBrokerConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Subscribe to a topic filter. Only the first subscriber below a first topic level causes a subscription on the
+     * broker connection, as long as that subscription has not been acknowledged yet.
+     *
+     * @param filter A topic filter, may contain wildcards
+     * @param subscriber A subscriber
+     * @return Completes with true if successful. Completes with false if not connected yet. Exceptionally otherwise.
+     *         Subscribers that join a pending covering subscription share its future.
+     */
+    public synchronized CompletableFuture<Boolean> subscribe(String filter, MqttMessageSubscriber subscriber) {
+        final String firstLevel = firstLevel(filter);
+        if (isWildcard(firstLevel)) {
+            return subscribeDirectly(filter, subscriber);
+        }
+
+        final String coverFilter = firstLevel + "/" + MULTI_LEVEL_WILDCARD;
+        Cover cover = covers.get(coverFilter);
+        if (cover != null && cover.subscribed) {
+            return subscribeDirectly(filter, subscriber);
+        }
+
+        subscribers.add(filter, subscriber);
+        if (cover == null) {
+            final Cover newCover = new Cover(coverFilter);
+            covers.put(coverFilter, newCover);
+            newCover.subscription = connection.subscribe(coverFilter, newCover).whenComplete((result, e) -> {
+                newCover.subscribed = e == null && result;
+                if (e != null) {
+                    removeCover(newCover);
+                }
+            });
+            cover = newCover;
+        }
+        return cover.subscription.whenComplete((result, e) -> {
+            if (e != null) {
+                synchronized (this) {
+                    subscribers.remove(filter, subscriber);
+                }
+            }
+        });
+    }
+
+    /**
+     * Unsubscribe from a topic filter. The last subscriber below a first topic level causes the covering
+     * subscription on the broker connection to be removed.
+     *
+     * @param filter A topic filter, may contain wildcards
+     * @param subscriber A subscriber
+     * @return Completes with true if successful. Exceptionally otherwise.
+     */
+    public synchronized CompletableFuture<Boolean> unsubscribe(String filter, MqttMessageSubscriber subscriber) {
+        if (removeDirectSubscriber(filter, subscriber)) {
+            return connection.unsubscribe(filter, subscriber);
+        }
+        final String firstLevel = firstLevel(filter);
+        if (isWildcard(firstLevel)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        subscribers.remove(filter, subscriber);
+        final @Nullable Cover cover = covers.get(firstLevel + "/" + MULTI_LEVEL_WILDCARD);
+        if (cover == null || subscribers.containsFirstLevel(firstLevel)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        removeCover(cover);
+        return connection.unsubscribe(cover.filter, cover);
+    }
+
+    /**
+     * Return true if no subscriber is registered.
+     */
+    public synchronized boolean isEmpty() {
+        return subscribers.isEmpty() && directSubscribers.isEmpty();
+    }
+
+    private CompletableFuture<Boolean> subscribeDirectly(String filter, MqttMessageSubscriber subscriber) {
+        directSubscribers.computeIfAbsent(filter, f -> new HashSet<>()).add(subscriber);
+        return connection.subscribe(filter, subscriber).whenComplete((result, e) -> {
+            if (e != null) {
+                synchronized (this) {
+                    removeDirectSubscriber(filter, subscriber);
+                }
+            }
+        });
+    }
+
+    private boolean removeDirectSubscriber(String filter, MqttMessageSubscriber subscriber) {
+        final @Nullable Set<MqttMessageSubscriber> filterSubscribers = directSubscribers.get(filter);
+        if (filterSubscribers == null || !filterSubscribers.remove(subscriber)) {
+            return false;
+        }
+        if (filterSubscribers.isEmpty()) {
+            directSubscribers.remove(filter);
+        }
+        return true;
+    }
+
+    private synchronized void removeCover(Cover cover) {
+        if (covers.remove(cover.filter, cover)) {
+            cover.subscribed = false;
+        }
+    }
+
+    private static String firstLevel(String filter) {
+        final int separator = filter.indexOf('/');
+        return separator < 0 ? filter : filter.substring(0, separator);
+    }
+
+    private static boolean isWildcard(String level) {
+        return SINGLE_LEVEL_WILDCARD.equals(level) || MULTI_LEVEL_WILDCARD.equals(level);
+    }
+
+    private void deliver(MqttMessageSubscriber subscriber, String topic, byte[] payload) {
+        try {
+            subscriber.processMessage(topic, payload);
+        } catch (RuntimeException e) {
+            logger.warn("Subscriber {} failed to process message on topic {}", subscriber, topic, e);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryParticipant;
 import org.openhab.binding.mqtt.discovery.TopicSubscribe;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
+import org.openhab.binding.mqtt.handler.TopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,7 +56,8 @@ public class TopicSubscribeMultiConnection {
         final ThingUID bridgeUid = handler.getThing().getUID();
 
         handler.getConnectionAsync().thenAccept(connection -> {
-            final TopicSubscribe o = new TopicSubscribe(connection, topic, messageReceivedListener, bridgeUid);
+            final TopicSubscribe o = new TopicSubscribe(connection, topic, messageReceivedListener, bridgeUid,
+                    TopicRouter.forConnection(connection));
             observedBrokerHandlers.put(bridgeUid, o);
             o.start().exceptionally(e -> {
                 logger.warn("Failed to MQTT subscribe for {} on topic {}", bridgeUid, topic);
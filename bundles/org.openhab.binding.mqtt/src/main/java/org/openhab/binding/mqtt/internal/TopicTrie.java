@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A trie of MQTT topic filters. Each level of a filter is a node in the trie, values are attached to the node of the
+ * last level. The single level wildcard "+" and the multi level wildcard "#" are regular child nodes, which are
+ * followed additionally to the exact level while matching a topic.
+ * <p>
+ * Matching a topic therefore takes time proportional to the depth of the topic (and the number of wildcard branches),
+ * not to the number of stored filters. Matching is lock free, modifications are serialized.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> The type of the values attached to a topic filter
+ */
+@NonNullByDefault
+public class TopicTrie<T> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new ConcurrentHashMap<>();
+        final Set<T> values = ConcurrentHashMap.newKeySet();
+
+        boolean isEmpty() {
+            return children.isEmpty() && values.isEmpty();
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Attach a value to a topic filter.
+     *
+     * @param filter A topic filter, may contain wildcards
+     * @param value A value
+     * @return Returns true if this is the first value for the topic filter
+     */
+    public synchronized boolean add(String filter, T value) {
+        Node<T> node = root;
+        for (String level : filter.split("/", -1)) {
+            node = node.children.computeIfAbsent(level, k -> new Node<>());
+        }
+        final boolean first = node.values.isEmpty();
+        node.values.add(value);
+        return first;
+    }
+
+    /**
+     * Remove a value from a topic filter. Nodes that became empty are removed from the trie.
+     *
+     * @param filter A topic filter, may contain wildcards
+     * @param value A value
+     * @return Returns true if no values are left for the topic filter
+     */
+    public synchronized boolean remove(String filter, T value) {
+        remove(root, filter.split("/", -1), 0, value);
+        return !contains(filter);
+    }
+
+    private void remove(Node<T> node, String[] levels, int index, T value) {
+        if (index == levels.length) {
+            node.values.remove(value);
+            return;
+        }
+        Node<T> child = node.children.get(levels[index]);
+        if (child == null) {
+            return;
+        }
+        remove(child, levels, index + 1, value);
+        if (child.isEmpty()) {
+            node.children.remove(levels[index]);
+        }
+    }
+
+    /**
+     * Return true if there is at least one value attached to the given topic filter.
+     *
+     * @param filter A topic filter, may contain wildcards
+     */
+    public boolean contains(String filter) {
+        Node<T> node = root;
+        for (String level : filter.split("/", -1)) {
+            node = node.children.get(level);
+            if (node == null) {
+                return false;
+            }
+        }
+        return !node.values.isEmpty();
+    }
+
+    /**
+     * Return true if there is at least one topic filter with the given first level.
+     *
+     * @param level The first level of a topic filter, may be a wildcard
+     */
+    public boolean containsFirstLevel(String level) {
+        return root.children.containsKey(level);
+    }
+
+    /**
+     * Return true if there are no values in the trie.
+     */
+    public boolean isEmpty() {
+        return root.isEmpty();
+    }
+
+    /**
+     * Call the consumer for all values of all topic filters that match the given topic.
+     * A value that is attached to several matching filters is reported for each filter.
+     * <p>
+     * As the MQTT specification requires, topics starting with "$" are not matched by wildcards on the first level.
+     *
+     * @param topic A topic without wildcards
+     * @param consumer The consumer of the values
+     */
+    public void match(String topic, Consumer<T> consumer) {
+        match(root, topic.split("/", -1), 0, !topic.startsWith("$"), consumer);
+    }
+
+    private void match(Node<T> node, String[] levels, int index, boolean wildcards, Consumer<T> consumer) {
+        if (wildcards) {
+            // "a/#" also matches the parent level "a"
+            final @Nullable Node<T> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+            if (multiLevel != null) {
+                multiLevel.values.forEach(consumer);
+            }
+        }
+        if (index == levels.length) {
+            node.values.forEach(consumer);
+            return;
+        }
+        final @Nullable Node<T> exact = node.children.get(levels[index]);
+        if (exact != null) {
+            match(exact, levels, index + 1, true, consumer);
+        }
+        if (wildcards) {
+            final @Nullable Node<T> singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+            if (singleLevel != null) {
+                match(singleLevel, levels, index + 1, true, consumer);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@link PublishQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+public class PublishQueueTest {
+    @Mock
+    private MqttBrokerConnection connection;
+
+    // Futures of the publishes that were handed to the connection, completed by the test
+    private final List<CompletableFuture<Boolean>> inFlight = Collections.synchronizedList(new ArrayList<>());
+
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        MockitoAnnotations.initMocks(this);
+        doAnswer(i -> {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            inFlight.add(future);
+            return future;
+        }).when(connection).publish(any(), any(), anyInt(), anyBoolean());
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void pipelineUpToMaxInFlight() {
+        PublishQueue queue = new PublishQueue(connection, 2, scheduler, 10000);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            futures.add(queue.publish("light/" + i + "/set", "ON".getBytes(), 1, false));
+        }
+        verify(connection, times(2)).publish(any(), any(), anyInt(), anyBoolean());
+        assertThat(queue.getInFlight(), is(2));
+        assertThat(queue.getQueueDepth(), is(3));
+
+        // Each acknowledgement lets the next message through
+        inFlight.get(0).complete(true);
+        assertTrue(futures.get(0).isDone());
+        verify(connection, times(3)).publish(any(), any(), anyInt(), anyBoolean());
+
+        for (int i = 1; i < 5; ++i) {
+            inFlight.get(i).complete(true);
+        }
+        assertThat(queue.getQueueDepth(), is(0));
+        assertThat(queue.getInFlight(), is(0));
+        assertThat(queue.getPublishedCount(), is(5L));
+        assertTrue(futures.stream().allMatch(f -> f.isDone() && !f.isCompletedExceptionally()));
+    }
+
+    @Test
+    public void deduplicateWaitingRetainedMessages() {
+        PublishQueue queue = new PublishQueue(connection, 1, scheduler, 10000);
+        queue.publish("blocker", "x".getBytes(), 1, false);
+
+        CompletableFuture<Boolean> first = queue.publish("light/set", "ON".getBytes(), 1, true);
+        CompletableFuture<Boolean> second = queue.publish("light/set", "OFF".getBytes(), 1, true);
+        assertThat(queue.getQueueDepth(), is(1));
+        assertThat(queue.getDeduplicatedCount(), is(1L));
+
+        inFlight.get(0).complete(true);
+        verify(connection).publish(eq("light/set"), eq("OFF".getBytes()), eq(1), eq(true));
+        verify(connection, times(0)).publish(eq("light/set"), eq("ON".getBytes()), anyInt(), anyBoolean());
+
+        inFlight.get(1).complete(true);
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    public void synchronouslyCompletedPublishes() {
+        PublishQueue queue = new PublishQueue(connection, 1, scheduler, 10000);
+        queue.publish("blocker", "x".getBytes(), 1, false);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).publish(any(), any(), anyInt(),
+                anyBoolean());
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 100000; ++i) {
+            futures.add(queue.publish("light/" + i + "/set", "ON".getBytes(), 1, false));
+        }
+
+        // All waiting messages are sent in a loop, not by a recursion per message
+        inFlight.get(0).complete(true);
+        assertThat(queue.getQueueDepth(), is(0));
+        assertThat(queue.getInFlight(), is(0));
+        assertTrue(futures.stream().allMatch(f -> f.isDone() && !f.isCompletedExceptionally()));
+    }
+
+    @Test
+    public void unacknowledgedPublishTimesOut() throws InterruptedException {
+        PublishQueue queue = new PublishQueue(connection, 1, scheduler, 50);
+        CompletableFuture<Boolean> lost = queue.publish("light/1/set", "ON".getBytes(), 1, false);
+        CompletableFuture<Boolean> next = queue.publish("light/2/set", "ON".getBytes(), 1, false);
+        assertThat(queue.getQueueDepth(), is(1));
+
+        try {
+            lost.get(5, TimeUnit.SECONDS);
+            fail("Expected a timeout");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof TimeoutException, is(true));
+        } catch (TimeoutException e) {
+            fail("The publish did not time out");
+        }
+        // The slot of the lost message is used for the next one, a late acknowledgement does not free it again
+        verify(connection, timeout(5000)).publish(eq("light/2/set"), any(), anyInt(), anyBoolean());
+        inFlight.get(0).complete(true);
+        inFlight.get(1).complete(true);
+        assertTrue(next.isDone());
+        assertThat(queue.getInFlight(), is(0));
+    }
+}
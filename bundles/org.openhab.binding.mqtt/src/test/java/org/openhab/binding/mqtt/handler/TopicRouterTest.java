@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@link TopicRouter}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicRouterTest {
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private MqttMessageSubscriber first;
+
+    @Mock
+    private MqttMessageSubscriber second;
+
+    // The covering subscriptions of the router on the connection and their futures, completed by the test
+    private final Map<String, MqttMessageSubscriber> covers = new HashMap<>();
+    private final Map<String, CompletableFuture<Boolean>> subscriptions = new HashMap<>();
+
+    private TopicRouter router;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(i -> {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            covers.put(i.getArgument(0), i.getArgument(1));
+            subscriptions.put(i.getArgument(0), future);
+            return future;
+        }).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        router = new TopicRouter(connection);
+    }
+
+    private void receive(String cover, String topic, String payload) {
+        covers.get(cover).processMessage(topic, payload.getBytes());
+    }
+
+    @Test
+    public void oneSubscriptionPerFirstLevel() {
+        router.subscribe("homie/device1/+/state", first);
+        router.subscribe("homie/device2/#", second);
+        router.subscribe("$SYS/broker/uptime", second);
+
+        verify(connection).subscribe(eq("homie/#"), any());
+        verify(connection).subscribe(eq("$SYS/#"), any());
+        verify(connection, times(2)).subscribe(any(), any());
+
+        receive("homie/#", "homie/device1/node/state", "ON");
+        verify(first).processMessage(eq("homie/device1/node/state"), any());
+        verify(second, never()).processMessage(eq("homie/device1/node/state"), any());
+    }
+
+    @Test
+    public void laterSubscriberWaitsForSubscription() {
+        CompletableFuture<Boolean> firstFuture = router.subscribe("homie/device1/state", first);
+        CompletableFuture<Boolean> secondFuture = router.subscribe("homie/device2/state", second);
+        assertFalse(firstFuture.isDone());
+        assertFalse(secondFuture.isDone());
+
+        subscriptions.get("homie/#").complete(true);
+        assertTrue(firstFuture.isDone());
+        assertTrue(secondFuture.isDone());
+    }
+
+    @Test
+    public void subscribeWildcardFirstFilterAsItIs() {
+        router.subscribe("homie/device1/state", first);
+        router.subscribe("+/+/$homie", second);
+        subscriptions.values().forEach(f -> f.complete(true));
+
+        verify(connection).subscribe(eq("homie/#"), any());
+        verify(connection).subscribe("+/+/$homie", second);
+        verify(connection, never()).subscribe(eq("#"), any());
+
+        // Only subscribers of the covering subscription are routed
+        receive("homie/#", "homie/device1/$homie", "3.0");
+        verify(first, never()).processMessage(any(), any());
+        verify(second, never()).processMessage(any(), any());
+    }
+
+    @Test
+    public void laterSubscriberGetsOwnSubscription() {
+        router.subscribe("homie/device1/$name", first);
+        subscriptions.get("homie/#").complete(true);
+
+        // The broker sends the retained messages for the new subscription only
+        router.subscribe("homie/+/$name", second);
+        verify(connection).subscribe("homie/+/$name", second);
+
+        receive("homie/#", "homie/device1/$name", "Lamp");
+        verify(first).processMessage(eq("homie/device1/$name"), eq("Lamp".getBytes()));
+        verify(second, never()).processMessage(any(), any());
+
+        router.unsubscribe("homie/+/$name", second);
+        verify(connection).unsubscribe("homie/+/$name", second);
+        verify(connection, never()).unsubscribe(eq("homie/#"), any());
+        router.unsubscribe("homie/device1/$name", first);
+        verify(connection).unsubscribe(eq("homie/#"), any());
+        assertThat(router.isEmpty(), is(true));
+    }
+
+    @Test
+    public void failingSubscriberDoesNotStopRouting() {
+        doThrow(new IllegalStateException("test")).when(first).processMessage(any(), any());
+        router.subscribe("homie/device1/state", first);
+        router.subscribe("homie/+/state", second);
+        subscriptions.get("homie/#").complete(true);
+
+        receive("homie/#", "homie/device1/state", "ON");
+        verify(second).processMessage(eq("homie/device1/state"), any());
+    }
+
+    @Test
+    public void unsubscribeLastSubscriberOfFirstLevel() {
+        router.subscribe("homie/device1/state", first);
+        router.subscribe("homie/device2/state", second);
+        subscriptions.get("homie/#").complete(true);
+
+        router.unsubscribe("homie/device1/state", first);
+        verify(connection, never()).unsubscribe(any(), any());
+        router.unsubscribe("homie/device2/state", second);
+        verify(connection).unsubscribe(eq("homie/#"), any());
+        assertThat(router.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test cases for the {@link TopicTrie}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicTrieTest {
+    private final Logger logger = LoggerFactory.getLogger(TopicTrieTest.class);
+
+    private Set<String> match(TopicTrie<String> trie, String topic) {
+        Set<String> result = new HashSet<>();
+        trie.match(topic, result::add);
+        return result;
+    }
+
+    @Test
+    public void exactMatch() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        assertTrue(trie.add("house/room1/light", "a"));
+        assertFalse(trie.add("house/room1/light", "b"));
+
+        assertThat(match(trie, "house/room1/light").size(), is(2));
+        assertThat(match(trie, "house/room1").size(), is(0));
+        assertThat(match(trie, "house/room1/light/state").size(), is(0));
+    }
+
+    @Test
+    public void wildcardMatch() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("house/+/light", "single");
+        trie.add("house/#", "multi");
+        trie.add("#", "all");
+        trie.add("+/+", "two");
+
+        assertThat(match(trie, "house/room1/light"), is(set("single", "multi", "all")));
+        assertThat(match(trie, "house/room1"), is(set("multi", "all", "two")));
+        // "house/#" also matches the parent level
+        assertThat(match(trie, "house"), is(set("multi", "all")));
+        assertThat(match(trie, "garden/room1/light"), is(set("all")));
+        // Empty levels are regular levels
+        assertThat(match(trie, "house//light"), is(set("single", "multi", "all")));
+    }
+
+    @Test
+    public void systemTopicsNotMatchedByWildcards() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("#", "all");
+        trie.add("+/broker/clients", "single");
+        trie.add("$SYS/#", "sys");
+
+        assertThat(match(trie, "$SYS/broker/clients"), is(set("sys")));
+    }
+
+    @Test
+    public void remove() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("house/+/light", "a");
+        trie.add("house/+/light", "b");
+
+        assertFalse(trie.remove("house/+/light", "a"));
+        assertTrue(trie.contains("house/+/light"));
+        assertTrue(trie.remove("house/+/light", "b"));
+        assertFalse(trie.contains("house/+/light"));
+        assertTrue(trie.isEmpty());
+        assertThat(match(trie, "house/room1/light").size(), is(0));
+    }
+
+    /**
+     * Compares matching 10k subscriptions with the trie to matching the compiled topic filters one by one.
+     * It only logs the timings and is therefore not part of the regular build.
+     */
+    @Ignore("Benchmark, run manually")
+    @Test
+    public void benchmarkTenThousandSubscriptions() {
+        final int subscriptions = 10000;
+        final int messages = 20000;
+
+        TopicTrie<String> trie = new TopicTrie<>();
+        List<Pattern> patterns = new ArrayList<>();
+        for (int i = 0; i < subscriptions; ++i) {
+            final String filter;
+            if (i % 100 == 0) {
+                filter = "zigbee2mqtt/device" + i + "/#";
+            } else if (i % 10 == 0) {
+                filter = "homie/device" + i + "/+/+";
+            } else {
+                filter = "tasmota/device" + i + "/tele/SENSOR";
+            }
+            trie.add(filter, filter);
+            patterns.add(Pattern.compile(filter.replace("+", "[^/]*").replace("#", ".*")));
+        }
+        trie.add("homeassistant/#", "discovery");
+        patterns.add(Pattern.compile("homeassistant/.*"));
+
+        List<String> topics = new ArrayList<>();
+        for (int i = 0; i < messages; ++i) {
+            topics.add("tasmota/device" + (i % subscriptions) + "/tele/SENSOR");
+        }
+
+        AtomicInteger trieMatches = new AtomicInteger();
+        long start = System.nanoTime();
+        for (String topic : topics) {
+            trie.match(topic, v -> trieMatches.incrementAndGet());
+        }
+        final long trieTime = System.nanoTime() - start;
+
+        int linearMatches = 0;
+        final int linearMessages = messages / 100;
+        start = System.nanoTime();
+        for (String topic : topics.subList(0, linearMessages)) {
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(topic).matches()) {
+                    ++linearMatches;
+                }
+            }
+        }
+        final long linearTime = System.nanoTime() - start;
+
+        // Only the "tasmota" filters are exact matches for the generated topics
+        assertThat(trieMatches.get(), is(messages * 9 / 10));
+        assertThat(linearMatches, is(linearMessages * 9 / 10));
+        logger.info("{} subscriptions: trie {} ns/message, linear {} ns/message", subscriptions,
+                trieTime / messages, linearTime / linearMessages);
+    }
+
+    private static Set<String> set(String... values) {
+        Set<String> result = new HashSet<>();
+        for (String value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+}
@@ -37,4 +37,12 @@ public interface Homekit {
      * @param allow boolean indicating whether or not to allow unauthenticated requests
      */
     void allowUnauthenticatedRequests(boolean allow);
+
+    /**
+     * Returns statistics about the change notifications sent to HomeKit clients, e.g. how many changes were
+     * coalesced and the current depth of the notification queue.
+     *
+     * @return a human readable summary
+     */
+    String getNotificationStatistics();
 }
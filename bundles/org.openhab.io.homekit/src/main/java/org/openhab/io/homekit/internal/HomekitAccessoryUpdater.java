@@ -12,8 +12,15 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -29,6 +36,11 @@ import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
  * clients. Each item/key pair (key is optional) should be unique, as the underlying
  * Homekit library takes care of insuring only a single subscription exists for
  * each accessory.
+ * <p>
+ * Notifications are rate limited per subscription: The first change is notified immediately, further changes
+ * within the notification window are coalesced into a single notification at the end of the window. The Homekit
+ * library reads the current value when notifying, so the last value wins. Notifications are sent from a queue,
+ * outside of the thread that changed the item state.
  *
  * @author Andy Lintner - Initial contribution
  */
@@ -36,6 +48,33 @@ public class HomekitAccessoryUpdater {
     private Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
 
+    private final ScheduledExecutorService scheduler;
+    private volatile long notificationWindowMillis;
+
+    private final Queue<Subscription> notificationQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final LongAdder stateChanges = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Creates an updater.
+     *
+     * @param scheduler The scheduler for the notification windows and the notification queue
+     * @param notificationWindowMillis The window in which changes of an item are coalesced. 0 to notify every change
+     */
+    public HomekitAccessoryUpdater(ScheduledExecutorService scheduler, long notificationWindowMillis) {
+        this.scheduler = scheduler;
+        this.notificationWindowMillis = notificationWindowMillis;
+    }
+
+    public void setNotificationWindow(long notificationWindowMillis) {
+        this.notificationWindowMillis = notificationWindowMillis;
+    }
+
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
     }
@@ -53,10 +92,12 @@ public class HomekitAccessoryUpdater {
         subscriptionsByName.compute(itemKey, (k, v) -> {
             if (v != null) {
                 logger.debug("Received duplicate subscription for {} / {}", item, key);
-                unsubscribe(item, key);
+                // Do not call unsubscribe() here, the map entry is already being computed
+                v.active = false;
+                item.removeStateChangeListener(v);
             }
             logger.debug("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -72,21 +113,118 @@ public class HomekitAccessoryUpdater {
         }
         subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
             logger.debug("Removing existing subscription for {} / {}", item, key);
+            v.active = false;
             item.removeStateChangeListener(v);
             return null;
         });
     }
 
-    @FunctionalInterface
-    private static interface Subscription extends StateChangeListener {
+    /**
+     * Returns a human readable summary of the notification metrics.
+     */
+    public String getStatistics() {
+        return String.format(
+                "%d subscriptions, %d state changes, %d notifications sent, %d coalesced, %d failed, queue depth %d (max %d), window %d ms",
+                subscriptionsByName.size(), stateChanges.sum(), notifications.sum(), coalesced.sum(), failures.sum(),
+                queueDepth.get(), maxQueueDepth.get(), notificationWindowMillis);
+    }
+
+    /**
+     * Adds the subscription to the notification queue, if it is not already queued, and makes sure the queue is
+     * drained.
+     */
+    private void enqueue(Subscription subscription) {
+        if (!subscription.queued.compareAndSet(false, true)) {
+            // Already waiting for its notification, which will report the latest value
+            coalesced.increment();
+            return;
+        }
+        notificationQueue.add(subscription);
+        int depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+        if (draining.compareAndSet(false, true)) {
+            scheduler.execute(this::drainQueue);
+        }
+    }
+
+    private void drainQueue() {
+        while (true) {
+            Subscription subscription = notificationQueue.poll();
+            if (subscription == null) {
+                draining.set(false);
+                // Something might have been added after the poll but before resetting the flag
+                if (notificationQueue.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            queueDepth.decrementAndGet();
+            // Reset before notifying: Changes during the notification need another one
+            subscription.queued.set(false);
+            if (!subscription.active) {
+                continue;
+            }
+            try {
+                subscription.callback.changed();
+                notifications.increment();
+            } catch (RuntimeException e) {
+                failures.increment();
+                logger.debug("Failed to notify Homekit clients about a changed characteristic", e);
+            }
+        }
+    }
+
+    /**
+     * A state change listener that rate limits the notifications of one item/key pair.
+     */
+    private class Subscription implements StateChangeListener {
+        final HomekitCharacteristicChangeCallback callback;
+        final AtomicBoolean queued = new AtomicBoolean();
+        volatile boolean active = true;
+        // Guarded by this
+        private boolean windowOpen;
+        private boolean changedInWindow;
+
+        Subscription(HomekitCharacteristicChangeCallback callback) {
+            this.callback = callback;
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            stateChanges.increment();
+            long window = notificationWindowMillis;
+            if (window > 0) {
+                synchronized (this) {
+                    if (windowOpen) {
+                        changedInWindow = true;
+                        coalesced.increment();
+                        return;
+                    }
+                    windowOpen = true;
+                }
+                scheduler.schedule(this::windowElapsed, window, TimeUnit.MILLISECONDS);
+            }
+            enqueue(this);
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
+
+        private void windowElapsed() {
+            synchronized (this) {
+                if (!changedInWindow || !active) {
+                    windowOpen = false;
+                    changedInWindow = false;
+                    return;
+                }
+                // Notify the coalesced changes and keep the window open for another period
+                changedInWindow = false;
+            }
+            enqueue(this);
+            scheduler.schedule(this::windowElapsed, Math.max(1, notificationWindowMillis), TimeUnit.MILLISECONDS);
+        }
     }
 
     private static class ItemKey {
@@ -43,13 +43,13 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
-    private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
     private HomekitSettings settings;
 
     private Set<String> pendingUpdates = new HashSet<String>();
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private HomekitAccessoryUpdater updater;
 
     /**
      * Rather than reacting to item added/removed/modified changes directly, we mark them as dirty (and the groups to
@@ -64,6 +64,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings) {
         this.itemRegistry = itemRegistry;
         this.settings = settings;
+        this.updater = new HomekitAccessoryUpdater(scheduler, settings.notificationWindow);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
 
@@ -153,6 +154,11 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationWindow(settings.notificationWindow);
+    }
+
+    public HomekitAccessoryUpdater getUpdater() {
+        return updater;
     }
 
     public void stop() {
@@ -35,6 +35,8 @@ public class HomekitSettings {
     public String thermostatCurrentModeCooling = "Cooling";
     public String thermostatCurrentModeOff = "Off";
     public String networkInterface;
+    /** Window in milliseconds in which changes of an item are coalesced into one notification */
+    public int notificationWindow = 500;
 
     @Deprecated
     public String thermostatHeatMode;
@@ -70,6 +72,7 @@ public class HomekitSettings {
         temp = Double.doubleToLongBits(minimumTemperature);
         result = prime * result + (int) (temp ^ (temp >>> 32));
         result = prime * result + ((pin == null) ? 0 : pin.hashCode());
+        result = prime * result + notificationWindow;
         result = prime * result + port;
         result = prime * result + ((thermostatTargetModeAuto == null) ? 0 : thermostatTargetModeAuto.hashCode());
         result = prime * result + ((thermostatTargetModeCool == null) ? 0 : thermostatTargetModeCool.hashCode());
@@ -104,6 +107,9 @@ public class HomekitSettings {
         } else if (!pin.equals(other.pin)) {
             return false;
         }
+        if (notificationWindow != other.notificationWindow) {
+            return false;
+        }
         if (port != other.port) {
             return false;
         }
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.StateChangeListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
+
+/**
+ * Tests cases for {@link HomekitAccessoryUpdater}. A fake scheduler collects the queue and window tasks, the tests
+ * run them explicitly.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomekitAccessoryUpdaterTest {
+    private static final long WINDOW = 1000;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+
+    @Mock
+    private GenericItem item;
+
+    @Mock
+    private HomekitCharacteristicChangeCallback callback;
+
+    // Tasks passed to execute() and schedule() of the fake scheduler
+    private final List<Runnable> executedTasks = new ArrayList<>();
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(i -> executedTasks.add(i.getArgument(0))).when(scheduler).execute(any());
+        doAnswer(i -> {
+            scheduledTasks.add(i.getArgument(0));
+            return scheduledFuture;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private StateChangeListener subscribe(HomekitAccessoryUpdater updater) {
+        updater.subscribe(item, callback);
+        ArgumentCaptor<StateChangeListener> listener = ArgumentCaptor.forClass(StateChangeListener.class);
+        verify(item).addStateChangeListener(listener.capture());
+        return listener.getValue();
+    }
+
+    private void change(StateChangeListener listener) {
+        listener.stateChanged(item, null, null);
+    }
+
+    /**
+     * Runs the queued notifications.
+     */
+    private void drainQueue() {
+        while (!executedTasks.isEmpty()) {
+            executedTasks.remove(0).run();
+        }
+    }
+
+    /**
+     * Lets the current notification windows elapse and runs the resulting notifications.
+     */
+    private void elapseWindow() {
+        List<Runnable> tasks = new ArrayList<>(scheduledTasks);
+        scheduledTasks.clear();
+        tasks.forEach(Runnable::run);
+        drainQueue();
+    }
+
+    @Test
+    public void firstChangeIsNotifiedImmediately() {
+        StateChangeListener listener = subscribe(new HomekitAccessoryUpdater(scheduler, WINDOW));
+
+        change(listener);
+        drainQueue();
+        verify(callback).changed();
+        verify(scheduler).schedule(any(Runnable.class), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+
+        // Nothing changed within the window, it is closed without a notification
+        elapseWindow();
+        verify(callback, times(1)).changed();
+        assertTrue(scheduledTasks.isEmpty());
+
+        // The next change opens a new window and is notified immediately again
+        change(listener);
+        drainQueue();
+        verify(callback, times(2)).changed();
+    }
+
+    @Test
+    public void changesWithinWindowAreNotifiedOnceAtTheEnd() {
+        StateChangeListener listener = subscribe(new HomekitAccessoryUpdater(scheduler, WINDOW));
+
+        change(listener);
+        drainQueue();
+        change(listener);
+        change(listener);
+        change(listener);
+        drainQueue();
+        verify(callback, times(1)).changed();
+
+        // The trailing notification reports the coalesced changes and keeps the window open
+        elapseWindow();
+        verify(callback, times(2)).changed();
+        change(listener);
+        drainQueue();
+        verify(callback, times(2)).changed();
+        elapseWindow();
+        verify(callback, times(3)).changed();
+    }
+
+    @Test
+    public void windowZeroNotifiesEveryChange() {
+        StateChangeListener listener = subscribe(new HomekitAccessoryUpdater(scheduler, 0));
+
+        for (int i = 0; i < 3; ++i) {
+            change(listener);
+            drainQueue();
+        }
+        verify(callback, times(3)).changed();
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+
+        // Changes that happen while a notification is still queued are reported by that notification
+        change(listener);
+        change(listener);
+        drainQueue();
+        verify(callback, times(4)).changed();
+    }
+
+    @Test
+    public void unsubscribeWhileNotificationIsQueued() {
+        HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater(scheduler, WINDOW);
+        StateChangeListener listener = subscribe(updater);
+
+        change(listener);
+        updater.unsubscribe(item);
+        verify(item).removeStateChangeListener(listener);
+        drainQueue();
+        verify(callback, never()).changed();
+
+        // A window that elapses after unsubscribing does not notify either
+        change(listener);
+        elapseWindow();
+        verify(callback, never()).changed();
+    }
+}
@@ -56,6 +56,8 @@ import org.osgi.service.event.EventAdmin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -93,13 +95,35 @@ public class ConfigStore {
     /**
      * This is the main gson instance, to be obtained by all components that operate on the dto data fields
      */
-    public final Gson gson = new GsonBuilder().registerTypeAdapter(HueLightEntry.class, new HueLightEntry.Serializer())
-            .registerTypeAdapter(HueSensorEntry.class, new HueSensorEntry.Serializer())
-            .registerTypeAdapter(HueRuleEntry.Condition.class, new HueRuleEntry.SerializerCondition())
-            .registerTypeAdapter(HueAuthorizedConfig.class, new HueAuthorizedConfig.Serializer())
-            .registerTypeAdapter(HueSuccessGeneric.class, new HueSuccessGeneric.Serializer())
-            .registerTypeAdapter(HueSuccessResponseStateChanged.class, new HueSuccessResponseStateChanged.Serializer())
-            .registerTypeAdapter(HueGroupEntry.class, new HueGroupEntry.Serializer(this)).create();
+    public final Gson gson = createGsonBuilder().create();
+
+    /**
+     * Same as {@link #gson}, but skips the lights of the {@link HueDataStore}. Used to serialize the full data store
+     * with the lights taken from their cached JSON, see {@link HueLightEntry#toJson(Map, Gson)}.
+     */
+    public final Gson gsonWithoutLights = createGsonBuilder()
+            .addSerializationExclusionStrategy(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(@Nullable FieldAttributes f) {
+                    return f != null && f.getDeclaringClass() == HueDataStore.class && "lights".equals(f.getName());
+                }
+
+                @Override
+                public boolean shouldSkipClass(@Nullable Class<?> clazz) {
+                    return false;
+                }
+            }).create();
+
+    private GsonBuilder createGsonBuilder() {
+        return new GsonBuilder().registerTypeAdapter(HueLightEntry.class, new HueLightEntry.Serializer())
+                .registerTypeAdapter(HueSensorEntry.class, new HueSensorEntry.Serializer())
+                .registerTypeAdapter(HueRuleEntry.Condition.class, new HueRuleEntry.SerializerCondition())
+                .registerTypeAdapter(HueAuthorizedConfig.class, new HueAuthorizedConfig.Serializer())
+                .registerTypeAdapter(HueSuccessGeneric.class, new HueSuccessGeneric.Serializer())
+                .registerTypeAdapter(HueSuccessResponseStateChanged.class,
+                        new HueSuccessResponseStateChanged.Serializer())
+                .registerTypeAdapter(HueGroupEntry.class, new HueGroupEntry.Serializer(this));
+    }
 
     @Reference
     protected @NonNullByDefault({}) ConfigurationAdmin configAdmin;
@@ -122,7 +146,7 @@ public class ConfigStore {
     public Set<String> whiteFilter = Collections.emptySet();
     public Set<String> ignoreItemsFilter = Collections.emptySet();
 
-    private int highestAssignedHueID = 1;
+    private volatile int highestAssignedHueID = 1;
 
     public ConfigStore() {
         scheduler = ThreadPoolManager.getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -283,23 +307,39 @@ public class ConfigStore {
      */
     public String mapItemUIDtoHueID(Item item) {
         MetadataKey key = new MetadataKey(METAKEY, item.getUID());
+        int hueId = getAssignedHueID(key);
+        if (hueId == 0) {
+            hueId = assignHueID(key);
+        }
+
+        return String.valueOf(hueId);
+    }
+
+    private int getAssignedHueID(MetadataKey key) {
         Metadata metadata = metadataRegistry.get(key);
-        int hueId = 0;
         if (metadata != null) {
             try {
-                hueId = Integer.parseInt(metadata.getValue());
+                return Integer.parseInt(metadata.getValue());
             } catch (NumberFormatException e) {
                 logger.warn("A non numeric hue ID '{}' was assigned. Ignore and reassign a different id now!",
                         metadata.getValue());
             }
         }
+        return 0;
+    }
+
+    /**
+     * Items are mapped concurrently, only assigning a new ID needs to be exclusive.
+     */
+    private synchronized int assignHueID(MetadataKey key) {
+        // Another thread might have assigned an ID in the meantime
+        int hueId = getAssignedHueID(key);
         if (hueId == 0) {
             ++highestAssignedHueID;
             hueId = highestAssignedHueID;
             metadataRegistry.add(new Metadata(key, String.valueOf(hueId), null));
         }
-
-        return String.valueOf(hueId);
+        return hueId;
     }
 
     public boolean isReady() {
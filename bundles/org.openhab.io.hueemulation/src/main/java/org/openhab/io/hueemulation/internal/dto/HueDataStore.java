@@ -12,9 +12,11 @@
  */
 package org.openhab.io.hueemulation.internal.dto;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 
@@ -29,8 +31,9 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 @NonNullByDefault
 public class HueDataStore {
     public HueAuthorizedConfig config = new HueAuthorizedConfig();
-    public TreeMap<String, HueLightEntry> lights = new TreeMap<>();
-    public TreeMap<String, HueGroupEntry> groups = new TreeMap<>();
+    // Lights and groups are synchronized with the item registry concurrently to REST requests
+    public ConcurrentSkipListMap<String, HueLightEntry> lights = new ConcurrentSkipListMap<>();
+    public ConcurrentSkipListMap<String, HueGroupEntry> groups = new ConcurrentSkipListMap<>();
     public Map<String, HueSceneEntry> scenes = new TreeMap<>();
     public Map<String, HueRuleEntry> rules = new TreeMap<>();
     public Map<String, HueSensorEntry> sensors = new TreeMap<>();
@@ -52,8 +55,11 @@ public class HueDataStore {
     public void resetGroupsAndLights() {
         groups.clear();
         lights.clear();
-        // There must be a group 0 all the time!
-        groups.put("0", new HueGroupEntry("All lights", null, null));
+        // There must be a group 0 all the time! It contains all lights and is computed when serialized,
+        // instead of being rebuilt on every light addition or removal.
+        HueGroupEntry allLights = new HueGroupEntry("All lights", null, null);
+        allLights.lightsSupplier = () -> new ArrayList<>(lights.keySet());
+        groups.put("0", allLights);
     }
 
     public void resetSensors() {
@@ -15,6 +15,7 @@ package org.openhab.io.hueemulation.internal.dto;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -61,6 +62,8 @@ public class HueGroupEntry {
 
     public transient @NonNullByDefault({}) GroupItem groupItem;
     public transient @Nullable DeviceType deviceType;
+    /** Computes the light IDs for a group without group item, like the group 0 of all lights */
+    public transient @Nullable Supplier<List<String>> lightsSupplier;
 
     // For deserialisation
     HueGroupEntry() {
@@ -79,7 +82,8 @@ public class HueGroupEntry {
 
     /**
      * This custom serializer computes the {@link HueGroupEntry#lights} list, before serializing.
-     * It does so, by looking up all item members of the references groupItem.
+     * It does so, by looking up all item members of the references groupItem or by asking
+     * the {@link HueGroupEntry#lightsSupplier}.
      */
     @NonNullByDefault({})
     public static class Serializer implements JsonSerializer<HueGroupEntry> {
@@ -98,9 +102,12 @@ public class HueGroupEntry {
         public JsonElement serialize(HueGroupEntry product, Type type, JsonSerializationContext context) {
 
             GroupItem item = product.groupItem;
+            Supplier<List<String>> lightsSupplier = product.lightsSupplier;
             if (item != null) {
                 product.lights = item.getMembers().stream().map(gitem -> cs.mapItemUIDtoHueID(gitem))
                         .collect(Collectors.toList());
+            } else if (lightsSupplier != null) {
+                product.lights = lightsSupplier.get();
             }
 
             JsonElement jsonSubscription = context.serialize(product, HueGroupHelper.class);
@@ -13,14 +13,17 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.library.items.StringItem;
+import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.StateUtils;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
@@ -53,6 +56,10 @@ public class HueLightEntry {
     public @NonNullByDefault({}) transient GenericItem item;
     public transient DeviceType deviceType;
 
+    /** Cached JSON of this entry and the item state it was computed for. See {@link #toJson(Gson)} */
+    private transient @Nullable String json;
+    private transient @Nullable State jsonState;
+
     public static class Config {
         public final String archetype = "classicbulb";
         public final String function = "functional";
@@ -183,8 +190,9 @@ public class HueLightEntry {
      *
      * @param element A replace item
      */
-    public void updateItem(GenericItem element) {
+    public synchronized void updateItem(GenericItem element) {
         item = element;
+        json = null;
         state = StateUtils.colorStateFromItemState(item.getState(), deviceType);
 
         String label = element.getLabel();
@@ -192,4 +200,52 @@ public class HueLightEntry {
             name = label;
         }
     }
+
+    /**
+     * Recomputes the cached JSON of this entry if the item state changed since the last time.
+     * Item states are immutable, every state change assigns a new state instance to the item.
+     *
+     * @param gson The gson instance with the {@link Serializer} registered
+     * @return Returns true if the JSON got recomputed
+     */
+    public synchronized boolean updateJson(Gson gson) {
+        State itemState = item.getState();
+        if (json != null && itemState == jsonState) {
+            return false;
+        }
+        json = gson.toJson(this);
+        jsonState = itemState;
+        return true;
+    }
+
+    /**
+     * Returns the JSON of this entry. It is only serialized again if the item state changed or the item got replaced.
+     *
+     * @param gson The gson instance with the {@link Serializer} registered
+     * @return The JSON representation
+     */
+    @SuppressWarnings("null")
+    public synchronized String toJson(Gson gson) {
+        updateJson(gson);
+        return json;
+    }
+
+    /**
+     * Assembles a JSON object of the given lights, from the cached JSON of each light.
+     *
+     * @param lights The lights by hue ID
+     * @param gson The gson instance with the {@link Serializer} registered
+     * @return A JSON object with the hue IDs as keys
+     */
+    public static String toJson(Map<String, HueLightEntry> lights, Gson gson) {
+        StringBuilder builder = new StringBuilder(lights.size() * 512);
+        builder.append('{');
+        for (Map.Entry<String, HueLightEntry> entry : lights.entrySet()) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(gson.toJson(entry.getKey())).append(':').append(entry.getValue().toJson(gson));
+        }
+        return builder.append('}').toString();
+    }
 }
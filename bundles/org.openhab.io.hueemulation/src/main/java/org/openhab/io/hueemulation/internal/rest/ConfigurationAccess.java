@@ -28,6 +28,7 @@ import javax.ws.rs.core.UriInfo;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
 import org.openhab.io.hueemulation.internal.dto.HueUnauthorizedConfig;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueChangeRequest;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse;
@@ -79,7 +80,10 @@ public class ConfigurationAccess {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds)).build();
+        // The lights are assembled from their cached JSON, the rest of the data store is serialized as usual
+        String withoutLights = cs.gsonWithoutLights.toJson(cs.ds);
+        String lights = HueLightEntry.toJson(cs.ds.lights, cs.gson);
+        return Response.ok("{\"lights\":" + lights + "," + withoutLights.substring(1)).build();
     }
 
     @GET
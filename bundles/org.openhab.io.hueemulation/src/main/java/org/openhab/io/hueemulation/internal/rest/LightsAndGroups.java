@@ -13,8 +13,13 @@
 package org.openhab.io.hueemulation.internal.rest;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,8 +31,11 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -112,18 +120,39 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL)
     protected volatile @Nullable EventPublisher eventPublisher;
 
+    /** Increased whenever a light got added, removed or changed. Used as ETag of the lights list. */
+    private final AtomicLong lightsRevision = new AtomicLong();
+    /** Random per activation, so that a tag from before a restart never matches a restarted revision count */
+    private volatile String lightsTagPrefix = "";
+
     /**
      * Registers to the {@link ItemRegistry} and enumerates currently existing items.
+     * <p>
+     * Registry changes are applied incrementally to the concurrent maps of the data store, the
+     * listener methods are therefore not synchronized. Group 0 is computed when it is requested.
+     * <p>
+     * The existing items are enumerated concurrently to speed up large setups. This happens in an own pool, which is
+     * shut down afterwards, so that the common pool shared by all bundles is not occupied.
      */
     @Activate
     protected void activate() {
         cs.ds.resetGroupsAndLights();
+        lightsRevision.set(0);
+        lightsTagPrefix = Long.toHexString(ThreadLocalRandom.current().nextLong());
 
         itemRegistry.removeRegistryChangeListener(this);
         itemRegistry.addRegistryChangeListener(this);
 
-        for (Item item : itemRegistry.getItems()) {
-            added(item);
+        final Collection<Item> items = itemRegistry.getItems();
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.submit(() -> items.parallelStream().forEach(this::added)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Failed to enumerate the items", e.getCause());
+        } finally {
+            pool.shutdown();
         }
     }
 
@@ -136,7 +165,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     }
 
     @Override
-    public synchronized void added(Item newElement) {
+    public void added(Item newElement) {
         if (!(newElement instanceof GenericItem)) {
             return;
         }
@@ -177,25 +206,17 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             HueLightEntry device = new HueLightEntry(element, cs.ds.config.uuid + "-" + hueID.toString(), deviceType);
             device.item = element;
             cs.ds.lights.put(hueID, device);
-            updateGroup0();
+            lightsRevision.incrementAndGet();
         }
     }
 
-    /**
-     * The HUE API enforces a Group 0 that contains all lights.
-     */
-    private void updateGroup0() {
-        cs.ds.groups.get("0").lights = cs.ds.lights.keySet().stream().map(v -> String.valueOf(v))
-                .collect(Collectors.toList());
-    }
-
     @Override
-    public synchronized void removed(Item element) {
+    public void removed(Item element) {
         String hueID = cs.mapItemUIDtoHueID(element);
         logger.debug("Remove item {}", hueID);
         cs.ds.lights.remove(hueID);
         cs.ds.groups.remove(hueID);
-        updateGroup0();
+        lightsRevision.incrementAndGet();
     }
 
     /**
@@ -203,7 +224,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
      */
     @SuppressWarnings({ "null", "unused" })
     @Override
-    public synchronized void updated(Item oldElement, Item newElement) {
+    public void updated(Item oldElement, Item newElement) {
         if (!(newElement instanceof GenericItem)) {
             return;
         }
@@ -236,18 +257,38 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         }
 
         hueDevice.updateItem(element);
+        lightsRevision.incrementAndGet();
+    }
+
+    /**
+     * Returns the entity tag of the current lights list. Lights with an outdated cached JSON are serialized
+     * again first, which increases the revision.
+     */
+    private EntityTag lightsEntityTag() {
+        boolean changed = false;
+        for (HueLightEntry light : cs.ds.lights.values()) {
+            changed |= light.updateJson(cs.gson);
+        }
+        long revision = changed ? lightsRevision.incrementAndGet() : lightsRevision.get();
+        return new EntityTag(lightsTagPrefix + "-" + revision + "-" + cs.ds.lights.size());
     }
 
     @GET
     @Path("{username}/lights")
     @ApiOperation(value = "Return all lights")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        // Clients poll this endpoint, answer with "304 Not Modified" if nothing changed
+        EntityTag tag = lightsEntityTag();
+        ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(HueLightEntry.toJson(cs.ds.lights, cs.gson)).tag(tag).build();
     }
 
     @GET
@@ -284,7 +325,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        return Response.ok(hueDevice != null ? hueDevice.toJson(cs.gson) : cs.gson.toJson(null)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -20,6 +20,8 @@ import static org.mockito.Mockito.verify;
 import java.io.IOException;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -154,6 +156,23 @@ public class LightsAndGroupsTests {
         assertThat(cs.ds.groups.get(hueID), nullValue());
     }
 
+    @Test
+    public void groupZeroContainsAllLights() {
+        SwitchItem item = new SwitchItem("switch1");
+        item.addTag("Switchable");
+        itemRegistry.add(item);
+        String hueID = cs.mapItemUIDtoHueID(item);
+
+        // The lights of group 0 are computed when it is serialized
+        HueGroupEntry allLights = cs.ds.groups.get("0");
+        cs.gson.toJson(allLights);
+        assertThat(allLights.lights, hasItem(hueID));
+
+        itemRegistry.remove(item.getName());
+        cs.gson.toJson(allLights);
+        assertThat(allLights.lights, not(hasItem(hueID)));
+    }
+
     @Test
     public void updateSwitchable() {
         SwitchItem item = new SwitchItem("switch1");
@@ -328,6 +347,41 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsNotModified() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag tag = response.getEntityTag();
+        assertThat(tag, is(notNullValue()));
+
+        // Nothing changed -> not modified
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, tag.toString()).get();
+        assertEquals(304, response.getStatus());
+
+        // A state change invalidates the cached light and the tag
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, tag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getEntityTag(), is(not(tag)));
+        assertThat(response.readEntity(String.class), containsString("\"on\":true"));
+    }
+
+    @Test
+    public void allLightsModifiedAfterRestart() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        EntityTag tag = response.getEntityTag();
+
+        // The revision starts over, the same lights must not be reported as unchanged to a client of the old instance
+        subject.deactivate();
+        subject.activate();
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, tag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getEntityTag(), is(not(tag)));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
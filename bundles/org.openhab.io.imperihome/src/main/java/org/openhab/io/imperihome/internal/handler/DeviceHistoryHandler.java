@@ -14,21 +14,28 @@ package org.openhab.io.imperihome.internal.handler;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 import java.util.regex.Matcher;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.io.imperihome.internal.handler.HistoryDownsampler.Aggregation;
 import org.openhab.io.imperihome.internal.model.HistoryItem;
 import org.openhab.io.imperihome.internal.model.HistoryList;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
@@ -38,21 +45,41 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Device history request handler.
+ * <p>
+ * The persisted series is downsampled to at most about {@value #MAX_POINTS} buckets, see {@link HistoryDownsampler}.
+ * The optional request parameter {@code aggregation} selects the values emitted per bucket (minmax, avg, min or max).
+ * Bucket boundaries are aligned to multiples of the bucket width and results are cached briefly, so repeated requests
+ * for a sliding range, e.g. the last 24 hours, are served without querying persistence again. Points outside of the
+ * requested range are removed from the response.
  *
  * @author Pepijn de Geus - Initial contribution
  */
 public class DeviceHistoryHandler {
 
     private static final String CHARSET = "UTF-8";
+    private static final String PARAM_AGGREGATION = "aggregation";
+
+    /** Maximum number of buckets a history response is reduced to */
+    static final int MAX_POINTS = 500;
+    static final long CACHE_TTL_MILLIS = 60_000;
+    static final int CACHE_MAX_ENTRIES = 256;
 
     private final Logger logger = LoggerFactory.getLogger(DeviceHistoryHandler.class);
 
     private final DeviceRegistry deviceRegistry;
     private final PersistenceServiceRegistry persistenceServiceRegistry;
+    private final LongSupplier clock;
+    private final Map<CacheKey, CachedHistory> cache = new ConcurrentHashMap<>();
 
     public DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry) {
+        this(deviceRegistry, persistenceServiceRegistry, System::currentTimeMillis);
+    }
+
+    DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry,
+            LongSupplier clock) {
         this.deviceRegistry = deviceRegistry;
         this.persistenceServiceRegistry = persistenceServiceRegistry;
+        this.clock = clock;
     }
 
     public HistoryList handle(HttpServletRequest req, Matcher urlMatcher) {
@@ -85,39 +112,126 @@ public class DeviceHistoryHandler {
             return null;
         }
 
-        return serveHistory(device, (QueryablePersistenceService) persistence, start, end);
+        Aggregation aggregation = Aggregation.parse(req.getParameter(PARAM_AGGREGATION), Aggregation.MINMAX);
+        return serveHistory(device, (QueryablePersistenceService) persistence, start, end, aggregation);
     }
 
     private HistoryList serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
-            long end) {
+            long end, Aggregation aggregation) {
+        long bucketWidth = HistoryDownsampler.bucketWidth(start, end, MAX_POINTS);
+        long alignedStart = Math.floorDiv(start, bucketWidth) * bucketWidth;
+        long alignedEnd = (Math.floorDiv(end, bucketWidth) + 1) * bucketWidth - 1;
+
+        CacheKey key = new CacheKey(persistence.getId(), device.getItemName(), alignedStart, alignedEnd, aggregation);
+        long now = clock.getAsLong();
+        CachedHistory cached = cache.get(key);
+        if (cached != null && cached.expires > now) {
+            logger.debug("Serving history of Item {} from cache", device.getItemName());
+            return new HistoryList(clip(cached.values, start, end));
+        }
+
+        List<HistoryItem> resultItems = Collections.unmodifiableList(
+                queryHistory(device, persistence, alignedStart, alignedEnd, bucketWidth, aggregation));
+        if (cache.size() >= CACHE_MAX_ENTRIES) {
+            cache.values().removeIf(entry -> entry.expires <= now);
+            if (cache.size() >= CACHE_MAX_ENTRIES) {
+                cache.clear();
+            }
+        }
+        cache.put(key, new CachedHistory(resultItems, now + CACHE_TTL_MILLIS));
+        return new HistoryList(clip(resultItems, start, end));
+    }
+
+    int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * The cached series covers the aligned range, which may start before and end after the requested range.
+     */
+    private static List<HistoryItem> clip(List<HistoryItem> values, long start, long end) {
+        return values.stream().filter(value -> value.getDate() >= start && value.getDate() <= end)
+                .collect(Collectors.toList());
+    }
+
+    private List<HistoryItem> queryHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
+            long end, long bucketWidth, Aggregation aggregation) {
         logger.info("Querying persistence for history of Item {}, from {} to {}", device.getItemName(), start, end);
 
         FilterCriteria criteria = new FilterCriteria().setItemName(device.getItemName()).setBeginDate(new Date(start))
-                .setEndDate(new Date(end));
+                .setEndDate(new Date(end)).setOrdering(Ordering.ASCENDING);
 
-        List<HistoryItem> resultItems = new LinkedList<>();
+        HistoryDownsampler downsampler = new HistoryDownsampler(start, bucketWidth, aggregation);
         Iterable<HistoricItem> historicItems = persistence.query(criteria);
 
         Iterator<HistoricItem> iterator = historicItems.iterator();
         if (!iterator.hasNext()) {
             logger.info("Persistence returned no results for history query");
-        } else {
-            while (iterator.hasNext()) {
-                HistoricItem historicItem = iterator.next();
-                State state = historicItem.getState();
-                if (state instanceof DecimalType) {
-                    Number value = ((DecimalType) state).toBigDecimal();
-                    resultItems.add(new HistoryItem(historicItem.getTimestamp(), value));
-                }
+            return downsampler.finish();
+        }
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            HistoricItem historicItem = iterator.next();
+            State state = historicItem.getState();
+            if (state instanceof DecimalType) {
+                downsampler.add(historicItem.getTimestamp().getTime(), ((DecimalType) state).toBigDecimal());
+                count++;
             }
+        }
+
+        List<HistoryItem> resultItems = downsampler.finish();
+        if (resultItems.isEmpty()) {
+            logger.warn("Persistence returned results for history query, but could not be interpreted as DecimalTypes");
+        } else {
+            logger.debug("Downsampled {} history values of Item {} to {}", count, device.getItemName(),
+                    resultItems.size());
+        }
+        return resultItems;
+    }
+
+    private static class CacheKey {
+        private final String persistenceId;
+        private final String itemName;
+        private final long start;
+        private final long end;
+        private final Aggregation aggregation;
+
+        CacheKey(String persistenceId, String itemName, long start, long end, Aggregation aggregation) {
+            this.persistenceId = persistenceId;
+            this.itemName = itemName;
+            this.start = start;
+            this.end = end;
+            this.aggregation = aggregation;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(persistenceId, itemName, start, end, aggregation);
+        }
 
-            if (resultItems.isEmpty()) {
-                logger.warn(
-                        "Persistence returned results for history query, but could not be interpreted as DecimalTypes");
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
             }
+            CacheKey other = (CacheKey) obj;
+            return start == other.start && end == other.end && aggregation == other.aggregation
+                    && Objects.equals(persistenceId, other.persistenceId) && Objects.equals(itemName, other.itemName);
         }
+    }
+
+    private static class CachedHistory {
+        private final List<HistoryItem> values;
+        private final long expires;
 
-        return new HistoryList(resultItems);
+        CachedHistory(List<HistoryItem> values, long expires) {
+            this.values = values;
+            this.expires = expires;
+        }
     }
 
 }
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.openhab.io.imperihome.internal.model.HistoryItem;
+
+/**
+ * Reduces a time series to a bounded number of points, by collecting the values into buckets of equal width and
+ * emitting one or two points per bucket. Values are added in chronological order and only the current bucket is kept
+ * in memory, so the number of values in the series does not matter.
+ *
+ * @author agent - Initial contribution
+ */
+public class HistoryDownsampler {
+
+    /**
+     * The values emitted for each bucket.
+     */
+    public enum Aggregation {
+        /** Minimum and maximum at their own timestamps, preserves the envelope of the series. */
+        MINMAX,
+        /** Average at the bucket center. */
+        AVG,
+        /** Minimum at its own timestamp. */
+        MIN,
+        /** Maximum at its own timestamp. */
+        MAX;
+
+        /**
+         * Parses an aggregation name, case insensitive.
+         *
+         * @param name The name, may be null.
+         * @param defaultValue Returned if name is null or unknown.
+         * @return The aggregation.
+         */
+        public static Aggregation parse(String name, Aggregation defaultValue) {
+            if (name == null) {
+                return defaultValue;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return defaultValue;
+            }
+        }
+    }
+
+    private final long start;
+    private final long bucketWidth;
+    private final Aggregation aggregation;
+    private final List<HistoryItem> result = new ArrayList<>();
+
+    private long bucketIndex = -1;
+    private int count;
+    private BigDecimal sum;
+    private BigDecimal min;
+    private long minDate;
+    private BigDecimal max;
+    private long maxDate;
+
+    /**
+     * @param start Start of the first bucket, epoch millis.
+     * @param bucketWidth Width of each bucket in millis, at least 1.
+     * @param aggregation The values to emit per bucket.
+     */
+    public HistoryDownsampler(long start, long bucketWidth, Aggregation aggregation) {
+        this.start = start;
+        this.bucketWidth = Math.max(1, bucketWidth);
+        this.aggregation = aggregation;
+    }
+
+    /**
+     * Computes the bucket width to reduce the given range to roughly the given number of points.
+     */
+    public static long bucketWidth(long start, long end, int maxPoints) {
+        long range = Math.max(1, end - start);
+        return Math.max(1, (range + maxPoints - 1) / maxPoints);
+    }
+
+    /**
+     * Adds a value. Values must be added in chronological order.
+     */
+    public void add(long date, BigDecimal value) {
+        long index = Math.floorDiv(date - start, bucketWidth);
+        if (index != bucketIndex) {
+            flush();
+            bucketIndex = index;
+        }
+        if (count == 0) {
+            sum = value;
+            min = value;
+            minDate = date;
+            max = value;
+            maxDate = date;
+        } else {
+            sum = sum.add(value);
+            if (value.compareTo(min) < 0) {
+                min = value;
+                minDate = date;
+            }
+            if (value.compareTo(max) > 0) {
+                max = value;
+                maxDate = date;
+            }
+        }
+        count++;
+    }
+
+    /**
+     * Emits the last bucket and returns the downsampled series, in chronological order.
+     */
+    public List<HistoryItem> finish() {
+        flush();
+        return result;
+    }
+
+    private void flush() {
+        if (count == 0) {
+            return;
+        }
+        switch (aggregation) {
+            case AVG:
+                BigDecimal avg = count == 1 ? sum : sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+                long date = count == 1 ? minDate : start + bucketIndex * bucketWidth + bucketWidth / 2;
+                result.add(new HistoryItem(date, avg));
+                break;
+            case MIN:
+                result.add(new HistoryItem(minDate, min));
+                break;
+            case MAX:
+                result.add(new HistoryItem(maxDate, max));
+                break;
+            default:
+                if (minDate == maxDate) {
+                    result.add(new HistoryItem(minDate, min));
+                } else if (minDate < maxDate) {
+                    result.add(new HistoryItem(minDate, min));
+                    result.add(new HistoryItem(maxDate, max));
+                } else {
+                    result.add(new HistoryItem(maxDate, max));
+                    result.add(new HistoryItem(minDate, min));
+                }
+                break;
+        }
+        count = 0;
+        sum = null;
+        min = null;
+        max = null;
+    }
+
+}
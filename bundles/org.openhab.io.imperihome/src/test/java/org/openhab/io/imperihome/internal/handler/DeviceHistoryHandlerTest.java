@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
+import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.imperihome.internal.model.HistoryItem;
+import org.openhab.io.imperihome.internal.model.HistoryList;
+import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
+import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
+
+/**
+ * Tests for {@link DeviceHistoryHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceHistoryHandlerTest {
+
+    private static final Pattern URL_PATTERN = Pattern.compile("(.+?)/(.+?)/(.+?)/(.+?)$");
+
+    private final List<HistoricItem> history = new ArrayList<>();
+    private QueryablePersistenceService persistence;
+    private HttpServletRequest request;
+    private long now = 1_000_000;
+    private DeviceHistoryHandler handler;
+
+    @Before
+    public void setUp() {
+        AbstractDevice device = mock(AbstractDevice.class);
+        when(device.getItemName()).thenReturn("item");
+        DeviceRegistry deviceRegistry = mock(DeviceRegistry.class);
+        when(deviceRegistry.getDevice("device")).thenReturn(device);
+
+        persistence = mock(QueryablePersistenceService.class);
+        when(persistence.getId()).thenReturn("persistence");
+        when(persistence.query(any(FilterCriteria.class))).thenAnswer(invocation -> history);
+        PersistenceServiceRegistry persistenceServiceRegistry = mock(PersistenceServiceRegistry.class);
+        when(persistenceServiceRegistry.getDefault()).thenReturn(persistence);
+
+        request = mock(HttpServletRequest.class);
+        handler = new DeviceHistoryHandler(deviceRegistry, persistenceServiceRegistry, () -> now);
+    }
+
+    @Test
+    public void resultIsClippedToRequestedRange() {
+        // 5000 ms in 500 buckets of 10 ms, aligned range is 1000-6009
+        addHistory(1001, 1);
+        addHistory(1005, 2);
+        addHistory(3000, 3);
+        addHistory(6005, 4);
+        addHistory(6007, 5);
+
+        List<HistoryItem> values = request(1005, 6005).getValues();
+
+        assertThat(values.size(), is(3));
+        assertThat(values.get(0).getDate(), is(1005L));
+        assertThat(values.get(1).getDate(), is(3000L));
+        assertThat(values.get(2).getDate(), is(6005L));
+    }
+
+    @Test
+    public void cachedResultIsClippedToRequestedRange() {
+        addHistory(1001, 1);
+        addHistory(1008, 2);
+        request(1000, 6000);
+
+        List<HistoryItem> values = request(1005, 6005).getValues();
+
+        verify(persistence, times(1)).query(any(FilterCriteria.class));
+        assertThat(values.size(), is(1));
+        assertThat(values.get(0).getDate(), is(1008L));
+    }
+
+    @Test
+    public void cachedResultExpires() {
+        addHistory(1001, 1);
+
+        request(1000, 6000);
+        now += DeviceHistoryHandler.CACHE_TTL_MILLIS - 1;
+        request(1000, 6000);
+        verify(persistence, times(1)).query(any(FilterCriteria.class));
+
+        now += 1;
+        request(1000, 6000);
+        verify(persistence, times(2)).query(any(FilterCriteria.class));
+    }
+
+    @Test
+    public void expiredEntriesAreEvictedWhenCacheIsFull() {
+        fillCache();
+        assertThat(handler.getCacheSize(), is(DeviceHistoryHandler.CACHE_MAX_ENTRIES));
+
+        now += DeviceHistoryHandler.CACHE_TTL_MILLIS;
+        request(0, 5000);
+
+        assertThat(handler.getCacheSize(), is(1));
+    }
+
+    @Test
+    public void cacheIsClearedWhenFullOfValidEntries() {
+        fillCache();
+        now += DeviceHistoryHandler.CACHE_TTL_MILLIS / 2;
+        request(0, 5000);
+        assertThat(handler.getCacheSize(), is(1));
+
+        // the new entry is still served from the cache
+        request(0, 5000);
+        verify(persistence, times(DeviceHistoryHandler.CACHE_MAX_ENTRIES + 1)).query(any(FilterCriteria.class));
+    }
+
+    private void fillCache() {
+        for (int i = 1; i <= DeviceHistoryHandler.CACHE_MAX_ENTRIES; i++) {
+            long start = i * 10_000L;
+            request(start, start + 5000);
+        }
+    }
+
+    private HistoryList request(long start, long end) {
+        Matcher matcher = URL_PATTERN.matcher("device/value/" + start + "/" + end);
+        assertThat(matcher.matches(), is(true));
+        return handler.handle(request, matcher);
+    }
+
+    private void addHistory(long date, int value) {
+        HistoricItem item = mock(HistoricItem.class);
+        when(item.getTimestamp()).thenReturn(new Date(date));
+        when(item.getState()).thenReturn(new DecimalType(value));
+        history.add(item);
+    }
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.imperihome.internal.handler.HistoryDownsampler.Aggregation;
+import org.openhab.io.imperihome.internal.model.HistoryItem;
+
+/**
+ * Tests for {@link HistoryDownsampler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HistoryDownsamplerTest {
+
+    @Test
+    public void bucketWidthCoversRange() {
+        assertThat(HistoryDownsampler.bucketWidth(0, 1000, 500), is(2L));
+        assertThat(HistoryDownsampler.bucketWidth(0, 1001, 500), is(3L));
+        assertThat(HistoryDownsampler.bucketWidth(0, 10, 500), is(1L));
+        assertThat(HistoryDownsampler.bucketWidth(0, 0, 500), is(1L));
+    }
+
+    @Test
+    public void valuesOnBucketBoundariesStartNewBucket() {
+        HistoryDownsampler downsampler = new HistoryDownsampler(100, 10, Aggregation.MAX);
+        downsampler.add(99, BigDecimal.valueOf(7));
+        downsampler.add(100, BigDecimal.valueOf(1));
+        downsampler.add(109, BigDecimal.valueOf(2));
+        downsampler.add(110, BigDecimal.valueOf(3));
+        downsampler.add(119, BigDecimal.valueOf(1));
+        downsampler.add(120, BigDecimal.valueOf(5));
+
+        List<HistoryItem> result = downsampler.finish();
+
+        assertThat(result.size(), is(4));
+        assertPoint(result.get(0), 99, 7);
+        assertPoint(result.get(1), 109, 2);
+        assertPoint(result.get(2), 110, 3);
+        assertPoint(result.get(3), 120, 5);
+    }
+
+    @Test
+    public void minMaxPointsAreInChronologicalOrder() {
+        HistoryDownsampler downsampler = new HistoryDownsampler(0, 10, Aggregation.MINMAX);
+        // min before max
+        downsampler.add(1, BigDecimal.valueOf(1));
+        downsampler.add(5, BigDecimal.valueOf(3));
+        downsampler.add(8, BigDecimal.valueOf(9));
+        // max before min
+        downsampler.add(12, BigDecimal.valueOf(9));
+        downsampler.add(15, BigDecimal.valueOf(3));
+        downsampler.add(18, BigDecimal.valueOf(1));
+        // single value
+        downsampler.add(25, BigDecimal.valueOf(4));
+
+        List<HistoryItem> result = downsampler.finish();
+
+        assertThat(result.size(), is(5));
+        assertPoint(result.get(0), 1, 1);
+        assertPoint(result.get(1), 8, 9);
+        assertPoint(result.get(2), 12, 9);
+        assertPoint(result.get(3), 18, 1);
+        assertPoint(result.get(4), 25, 4);
+    }
+
+    @Test
+    public void averageIsEmittedAtBucketCenter() {
+        HistoryDownsampler downsampler = new HistoryDownsampler(0, 10, Aggregation.AVG);
+        downsampler.add(1, BigDecimal.valueOf(1));
+        downsampler.add(2, BigDecimal.valueOf(2));
+        downsampler.add(9, BigDecimal.valueOf(6));
+        downsampler.add(13, BigDecimal.valueOf(4));
+
+        List<HistoryItem> result = downsampler.finish();
+
+        assertThat(result.size(), is(2));
+        assertPoint(result.get(0), 5, 3);
+        // a single value keeps its own timestamp
+        assertPoint(result.get(1), 13, 4);
+    }
+
+    @Test
+    public void emptySeries() {
+        assertThat(new HistoryDownsampler(0, 10, Aggregation.MINMAX).finish().isEmpty(), is(true));
+    }
+
+    @Test
+    public void parseAggregation() {
+        assertThat(Aggregation.parse(" avg ", Aggregation.MINMAX), is(Aggregation.AVG));
+        assertThat(Aggregation.parse("unknown", Aggregation.MINMAX), is(Aggregation.MINMAX));
+        assertThat(Aggregation.parse(null, Aggregation.MAX), is(Aggregation.MAX));
+    }
+
+    private static void assertPoint(HistoryItem item, long date, int value) {
+        assertThat(item.getDate(), is(date));
+        assertThat(new BigDecimal(item.getValue().toString()).compareTo(BigDecimal.valueOf(value)), is(0));
+    }
+
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.moquette.interception.InterceptHandler;
+import io.moquette.interception.messages.InterceptAcknowledgedMessage;
+import io.moquette.interception.messages.InterceptConnectMessage;
+import io.moquette.interception.messages.InterceptConnectionLostMessage;
+import io.moquette.interception.messages.InterceptDisconnectMessage;
+import io.moquette.interception.messages.InterceptPublishMessage;
+import io.moquette.interception.messages.InterceptSubscribeMessage;
+import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+
+/**
+ * Collects broker wide and per topic metrics of the embedded broker by intercepting broker events.
+ * <p>
+ * The metrics can be published to the broker itself with {@link #publishMetrics(MqttBrokerConnection)}, below
+ * the {@link #METRICS_TOPIC} prefix. Generic MQTT Things can subscribe to those topics to expose them as channels.
+ * Besides the broker wide values only the {@link #TOP_TOPICS} busiest topics of an interval are published, so that
+ * the number of metric messages does not grow with the number of topics.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BrokerMetricsListener implements InterceptHandler {
+    public static final String METRICS_TOPIC = "$SYS/broker/";
+    /** The number of tracked topics is limited, to not grow without bounds if clients use arbitrary topics */
+    public static final int MAX_TOPICS = 10000;
+    /** The number of topics with the highest message rate whose metrics are published */
+    public static final int TOP_TOPICS = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(BrokerMetricsListener.class);
+
+    private final AtomicInteger connectedClients = new AtomicInteger();
+    private final TopicMetrics total = new TopicMetrics();
+    private final Map<String, TopicMetrics> topics = new ConcurrentHashMap<>();
+
+    /**
+     * Metrics of a single topic
+     */
+    public static class TopicMetrics {
+        private final LongAdder messages = new LongAdder();
+        private long lastCount;
+        private long lastUpdate = System.currentTimeMillis();
+        private double messagesPerSecond;
+
+        void messageReceived() {
+            messages.increment();
+        }
+
+        /**
+         * Computes the message rate since the last call.
+         *
+         * @return Returns true if messages were received since the last call.
+         */
+        synchronized boolean updateRate(long now) {
+            long count = messages.sum();
+            long elapsed = now - lastUpdate;
+            if (elapsed > 0) {
+                messagesPerSecond = (count - lastCount) * 1000.0 / elapsed;
+                lastUpdate = now;
+            }
+            boolean changed = count != lastCount;
+            lastCount = count;
+            return changed;
+        }
+
+        public long getMessageCount() {
+            return messages.sum();
+        }
+
+        public synchronized double getMessagesPerSecond() {
+            return messagesPerSecond;
+        }
+    }
+
+    public int getConnectedClients() {
+        return connectedClients.get();
+    }
+
+    /**
+     * Returns the metrics of all received messages.
+     */
+    public TopicMetrics getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns an unmodifiable view of the metrics per topic.
+     */
+    public Map<String, TopicMetrics> getTopics() {
+        return Collections.unmodifiableMap(topics);
+    }
+
+    /**
+     * Clears all topic metrics. The number of connected clients is kept.
+     */
+    public void reset() {
+        topics.clear();
+    }
+
+    /**
+     * Publishes the broker metrics and the metrics of the busiest topics since the last call.
+     *
+     * @param connection The connection to publish with
+     */
+    public void publishMetrics(MqttBrokerConnection connection) {
+        long now = System.currentTimeMillis();
+        total.updateRate(now);
+        publish(connection, "clients/connected", connectedClients.get());
+        publish(connection, "messages/received", total.getMessageCount());
+        publish(connection, "messages/rate", total.getMessagesPerSecond());
+        publish(connection, "topics/count", topics.size());
+
+        for (Entry<String, TopicMetrics> entry : getBusiestTopics(now)) {
+            String prefix = "topics/" + entry.getKey() + "/";
+            publish(connection, prefix + "messages", entry.getValue().getMessageCount());
+            publish(connection, prefix + "rate", entry.getValue().getMessagesPerSecond());
+        }
+    }
+
+    /**
+     * Updates the message rate of all topics and returns the {@link #TOP_TOPICS} topics with the highest rate that
+     * received messages since the last call, the busiest first.
+     */
+    private List<Entry<String, TopicMetrics>> getBusiestTopics(long now) {
+        final Comparator<Entry<String, TopicMetrics>> byRate = Comparator
+                .comparingDouble(e -> e.getValue().getMessagesPerSecond());
+        final PriorityQueue<Entry<String, TopicMetrics>> busiest = new PriorityQueue<>(TOP_TOPICS + 1, byRate);
+        for (Entry<String, TopicMetrics> entry : topics.entrySet()) {
+            if (entry.getValue().updateRate(now)) {
+                busiest.add(entry);
+                if (busiest.size() > TOP_TOPICS) {
+                    busiest.poll();
+                }
+            }
+        }
+        List<Entry<String, TopicMetrics>> result = new ArrayList<>(busiest);
+        result.sort(byRate.reversed());
+        return result;
+    }
+
+    private void publish(MqttBrokerConnection connection, String subTopic, Object value) {
+        String text = value instanceof Double ? String.format(Locale.ROOT, "%.2f", value) : value.toString();
+        connection.publish(METRICS_TOPIC + subTopic, text.getBytes(StandardCharsets.UTF_8), 0, false);
+    }
+
+    @Override
+    public String getID() {
+        return "logger";
+    }
+
+    @Override
+    public Class<?>[] getInterceptedMessageTypes() {
+        return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                InterceptConnectionLostMessage.class, InterceptPublishMessage.class };
+    }
+
+    @Override
+    public void onConnect(InterceptConnectMessage msg) {
+        connectedClients.incrementAndGet();
+        logger.debug("MQTT Client connected: {}", msg.getClientID());
+    }
+
+    @Override
+    public void onConnectionLost(InterceptConnectionLostMessage msg) {
+        connectedClients.getAndUpdate(v -> v > 0 ? v - 1 : 0);
+        logger.debug("MQTT Client connection lost: {}", msg.getClientID());
+    }
+
+    @Override
+    public void onDisconnect(InterceptDisconnectMessage msg) {
+        connectedClients.getAndUpdate(v -> v > 0 ? v - 1 : 0);
+        logger.debug("MQTT Client disconnected: {}", msg.getClientID());
+    }
+
+    @Override
+    public void onMessageAcknowledged(InterceptAcknowledgedMessage msg) {
+    }
+
+    @Override
+    public void onPublish(InterceptPublishMessage msg) {
+        String topic = msg.getTopicName();
+        // Do not count our own metric messages
+        if (topic.startsWith("$")) {
+            return;
+        }
+        total.messageReceived();
+        TopicMetrics metrics = topics.get(topic);
+        if (metrics == null && topics.size() < MAX_TOPICS) {
+            metrics = topics.computeIfAbsent(topic, t -> new TopicMetrics());
+        }
+        if (metrics != null) {
+            metrics.messageReceived();
+        }
+    }
+
+    @Override
+    public void onSubscribe(InterceptSubscribeMessage msg) {
+    }
+
+    @Override
+    public void onUnsubscribe(InterceptUnsubscribeMessage msg) {
+    }
+}
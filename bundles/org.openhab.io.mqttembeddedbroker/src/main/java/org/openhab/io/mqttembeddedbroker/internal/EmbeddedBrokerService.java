@@ -14,6 +14,7 @@ package org.openhab.io.mqttembeddedbroker.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -57,14 +58,10 @@ import io.moquette.broker.Server;
 import io.moquette.broker.config.MemoryConfig;
 import io.moquette.broker.security.IAuthenticator;
 import io.moquette.broker.security.IAuthorizatorPolicy;
-import io.moquette.interception.InterceptHandler;
-import io.moquette.interception.messages.InterceptAcknowledgedMessage;
-import io.moquette.interception.messages.InterceptConnectMessage;
-import io.moquette.interception.messages.InterceptConnectionLostMessage;
-import io.moquette.interception.messages.InterceptDisconnectMessage;
-import io.moquette.interception.messages.InterceptPublishMessage;
-import io.moquette.interception.messages.InterceptSubscribeMessage;
-import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttPublishMessage;
+import io.netty.handler.codec.mqtt.MqttQoS;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
@@ -87,61 +84,16 @@ public class EmbeddedBrokerService
         implements ConfigurableService, MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
     private @Nullable MqttService service;
     private String persistenceFilename = "";
+    private @Nullable RetainedMessageStore retainedStore;
+    private int autosaveInterval = 30;
+    private int metricsInterval = 0;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
-    @NonNullByDefault({})
-    class BrokerMetricsListenerEx implements InterceptHandler {
-
-        @Override
-        public String getID() {
-            return "logger";
-        }
-
-        @Override
-        public Class<?>[] getInterceptedMessageTypes() {
-            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class };
-        }
-
-        @Override
-        public void onConnect(InterceptConnectMessage arg0) {
-            logger.debug("MQTT Client connected: {}", arg0.getClientID());
-        }
-
-        @Override
-        public void onConnectionLost(InterceptConnectionLostMessage arg0) {
-
-        }
-
-        @Override
-        public void onDisconnect(InterceptDisconnectMessage arg0) {
-            logger.debug("MQTT Client disconnected: {}", arg0.getClientID());
-        }
-
-        @Override
-        public void onMessageAcknowledged(InterceptAcknowledgedMessage arg0) {
-
-        }
-
-        @Override
-        public void onPublish(InterceptPublishMessage arg0) {
-
-        }
-
-        @Override
-        public void onSubscribe(InterceptSubscribeMessage arg0) {
-
-        }
-
-        @Override
-        public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
-
-        }
-    }
-
     protected @Nullable Server server;
     private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerService.class);
     protected MqttEmbeddedBrokerDetectStart detectStart = new MqttEmbeddedBrokerDetectStart(this);
-    protected BrokerMetricsListenerEx metrics = new BrokerMetricsListenerEx();
+    protected BrokerMetricsListener metrics = new BrokerMetricsListener();
+    private @Nullable ScheduledExecutorService scheduler;
 
     private @Nullable MqttBrokerConnection connection;
 
@@ -178,15 +130,29 @@ public class EmbeddedBrokerService
             connection.setCredentials(config.username, config.password);
         }
 
-        if (!config.persistenceFile.isEmpty()) {
-            final String persistenceFilename = config.persistenceFile;
-            if (!Paths.get(persistenceFilename).isAbsolute()) {
+        persistenceFilename = "";
+        retainedStore = null;
+        autosaveInterval = Math.max(1, config.autosaveInterval);
+        metricsInterval = config.metricsInterval;
+
+        if (!ServiceConfiguration.PERSISTENCE_MEMORY.equals(config.persistenceMode)
+                && !config.persistenceFile.isEmpty()) {
+            Path persistencePath = Paths.get(config.persistenceFile);
+            if (!persistencePath.isAbsolute()) {
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
                 Files.createDirectories(path);
-                this.persistenceFilename = path.resolve(persistenceFilename).toString();
+                persistencePath = path.resolve(persistencePath);
             }
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            if (ServiceConfiguration.PERSISTENCE_RETAINED.equals(config.persistenceMode)) {
+                // Use an own file, the broker store file has a different format
+                persistencePath = persistencePath.resolveSibling(persistencePath.getFileName() + ".retained");
+                retainedStore = new RetainedMessageStore(persistencePath);
+                logger.info("Broker retained messages file: {}", persistencePath);
+            } else {
+                this.persistenceFilename = persistencePath.toString();
+                logger.info("Broker persistence file: {}", persistenceFilename);
+            }
         } else {
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
@@ -202,23 +168,16 @@ public class EmbeddedBrokerService
         }
         MqttBrokerConnection connection = this.connection;
         if (connection == null) {
-            if (server != null) {
-                server.stopServer();
-            }
-            server = null;
+            stopEmbeddedServer();
             return;
         }
 
         // Clean shutdown: Stop connection, wait for process to finish, shutdown server
         connection.removeConnectionObserver(this);
         try {
-            connection.stop().thenRun(() -> {
-                if (server != null) {
-                    server.stopServer();
-                    server = null;
-                }
-            }).get(300, TimeUnit.MILLISECONDS);
+            connection.stop().thenRun(this::stopEmbeddedServer).get(300, TimeUnit.MILLISECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException ignored) {
+            stopEmbeddedServer();
         }
         connection = null;
     }
@@ -297,7 +256,7 @@ public class EmbeddedBrokerService
 
         if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
-            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, Integer.toString(autosaveInterval));
         }
 
         // We may provide ACL functionality at some point as well
@@ -312,20 +271,93 @@ public class EmbeddedBrokerService
 
         this.server = server;
         server.addInterceptHandler(metrics);
-        ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
-        detectStart.startBrokerStartedDetection(port, s);
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+        this.scheduler = scheduler;
+
+        final RetainedMessageStore retainedStore = this.retainedStore;
+        if (retainedStore != null) {
+            restoreRetainedMessages(server, retainedStore);
+            server.addInterceptHandler(retainedStore);
+            // Flush asynchronously and only if retained messages changed
+            scheduler.scheduleWithFixedDelay(() -> flushRetainedMessages(retainedStore), autosaveInterval,
+                    autosaveInterval, TimeUnit.SECONDS);
+        }
+        if (metricsInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::publishMetrics, metricsInterval, metricsInterval,
+                    TimeUnit.SECONDS);
+        }
+
+        detectStart.startBrokerStartedDetection(port, scheduler);
     }
 
-    public void stopEmbeddedServer() {
+    public synchronized void stopEmbeddedServer() {
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            this.scheduler = null;
+        }
         Server server = this.server;
         if (server != null) {
             server.removeInterceptHandler(metrics);
             detectStart.stopBrokerStartDetection();
+            final RetainedMessageStore retainedStore = this.retainedStore;
+            if (retainedStore != null) {
+                server.removeInterceptHandler(retainedStore);
+            }
             server.stopServer();
             this.server = null;
+            if (retainedStore != null) {
+                flushRetainedMessages(retainedStore);
+            }
         }
     }
 
+    /**
+     * Loads the retained messages file and publishes all retained messages to the broker.
+     */
+    protected void restoreRetainedMessages(Server server, RetainedMessageStore retainedStore) {
+        try {
+            retainedStore.load();
+        } catch (IOException e) {
+            logger.warn("Failed to load retained messages from {}", retainedStore.getFile(), e);
+            return;
+        }
+        retainedStore.getMessages().forEach((topic, message) -> {
+            MqttPublishMessage msg = MqttMessageBuilders.publish().topicName(topic).retained(true)
+                    .qos(MqttQoS.valueOf(message.qos)).payload(Unpooled.wrappedBuffer(message.payload)).build();
+            server.internalPublish(msg, Constants.CLIENTID);
+        });
+        logger.debug("Restored {} retained messages", retainedStore.size());
+    }
+
+    protected void flushRetainedMessages(RetainedMessageStore retainedStore) {
+        try {
+            retainedStore.flush();
+        } catch (IOException e) {
+            logger.warn("Failed to write retained messages to {}", retainedStore.getFile(), e);
+        }
+    }
+
+    /**
+     * Publishes the broker metrics to the embedded broker. See {@link BrokerMetricsListener}.
+     */
+    protected void publishMetrics() {
+        MqttBrokerConnection connection = this.connection;
+        if (connection == null || connection.connectionState() != MqttConnectionState.CONNECTED) {
+            return;
+        }
+        metrics.publishMetrics(connection);
+        final RetainedMessageStore retainedStore = this.retainedStore;
+        if (retainedStore != null) {
+            connection.publish(BrokerMetricsListener.METRICS_TOPIC + "retained/count",
+                    Integer.toString(retainedStore.size()).getBytes(StandardCharsets.UTF_8), 0, false);
+        }
+    }
+
+    public BrokerMetricsListener getMetrics() {
+        return metrics;
+    }
+
     /**
      * For testing: Returns true if the embedded server confirms that the MqttBrokerConnection is connected.
      */
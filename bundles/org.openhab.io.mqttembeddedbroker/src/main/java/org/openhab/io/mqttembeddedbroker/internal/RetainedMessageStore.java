@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import io.moquette.interception.InterceptHandler;
+import io.moquette.interception.messages.InterceptAcknowledgedMessage;
+import io.moquette.interception.messages.InterceptConnectMessage;
+import io.moquette.interception.messages.InterceptConnectionLostMessage;
+import io.moquette.interception.messages.InterceptDisconnectMessage;
+import io.moquette.interception.messages.InterceptPublishMessage;
+import io.moquette.interception.messages.InterceptSubscribeMessage;
+import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A store for retained messages only. The broker itself runs with in-memory persistence in this mode,
+ * this store records retained publishes and writes them to a file when {@link #flush()} is called,
+ * if something changed since the last flush. Sessions and in-flight messages are not persisted.
+ * <p>
+ * The file is written to a temporary file first and then moved over the previous one, so that
+ * a crash during a flush does not lose all retained messages.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RetainedMessageStore implements InterceptHandler {
+    private static final int FILE_MAGIC = 0x4F48524D; // "OHRM"
+    private static final int FILE_VERSION = 1;
+
+    /**
+     * A retained message
+     */
+    public static class RetainedEntry {
+        public final int qos;
+        public final byte[] payload;
+
+        public RetainedEntry(int qos, byte[] payload) {
+            this.qos = qos;
+            this.payload = payload;
+        }
+    }
+
+    private final Path file;
+    private final Map<String, RetainedEntry> messages = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    /**
+     * Creates a retained message store.
+     *
+     * @param file The file to load from and flush to
+     */
+    public RetainedMessageStore(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Stores a retained message. An empty payload removes the retained message of the topic, like for the broker.
+     *
+     * @param topic The topic
+     * @param qos The QoS of the message
+     * @param payload The payload
+     */
+    public void retain(String topic, int qos, byte[] payload) {
+        if (payload.length == 0) {
+            if (messages.remove(topic) != null) {
+                dirty.set(true);
+            }
+        } else {
+            messages.put(topic, new RetainedEntry(qos, payload));
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Returns an unmodifiable view of all retained messages by topic.
+     */
+    public Map<String, RetainedEntry> getMessages() {
+        return Collections.unmodifiableMap(messages);
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    /**
+     * Returns true if retained messages changed since the last flush.
+     */
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * Loads the retained messages from the file, if it exists. Already stored messages are replaced.
+     *
+     * @throws IOException If the file could not be read or is not a retained message file
+     */
+    public synchronized void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a retained message file: " + file);
+            }
+            int version = in.readInt();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported retained message file version " + version);
+            }
+            int count = in.readInt();
+            messages.clear();
+            for (int i = 0; i < count; ++i) {
+                String topic = in.readUTF();
+                int qos = in.readUnsignedByte();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                messages.put(topic, new RetainedEntry(qos, payload));
+            }
+        }
+        dirty.set(false);
+    }
+
+    /**
+     * Writes all retained messages to the file, if anything changed since the last flush.
+     * Changes that happen while flushing are written with the next flush.
+     *
+     * @throws IOException If the file could not be written
+     */
+    public synchronized void flush() throws IOException {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                // Take a snapshot, the map may change while we are writing
+                Map<String, RetainedEntry> snapshot = new HashMap<>(messages);
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, RetainedEntry> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeByte(entry.getValue().qos);
+                    out.writeInt(entry.getValue().payload.length);
+                    out.write(entry.getValue().payload);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            throw e;
+        }
+    }
+
+    @Override
+    public String getID() {
+        return "retainedstore";
+    }
+
+    @Override
+    public Class<?>[] getInterceptedMessageTypes() {
+        return new Class<?>[] { InterceptPublishMessage.class };
+    }
+
+    @Override
+    public void onPublish(InterceptPublishMessage msg) {
+        if (!msg.isRetainFlag() || msg.getTopicName().startsWith("$")) {
+            return;
+        }
+        // The buffer is shared with the broker: Copy without moving the reader index
+        ByteBuf buffer = msg.getPayload();
+        byte[] payload = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), payload);
+        retain(msg.getTopicName(), msg.getQos().value(), payload);
+    }
+
+    @Override
+    public void onConnect(InterceptConnectMessage msg) {
+    }
+
+    @Override
+    public void onDisconnect(InterceptDisconnectMessage msg) {
+    }
+
+    @Override
+    public void onConnectionLost(InterceptConnectionLostMessage msg) {
+    }
+
+    @Override
+    public void onSubscribe(InterceptSubscribeMessage msg) {
+    }
+
+    @Override
+    public void onUnsubscribe(InterceptUnsubscribeMessage msg) {
+    }
+
+    @Override
+    public void onMessageAcknowledged(InterceptAcknowledgedMessage msg) {
+    }
+}
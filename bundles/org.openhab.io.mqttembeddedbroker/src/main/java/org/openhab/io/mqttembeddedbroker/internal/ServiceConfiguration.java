@@ -22,9 +22,21 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class ServiceConfiguration {
+    /** Sessions, subscriptions and retained messages are kept in memory only */
+    public static final String PERSISTENCE_MEMORY = "memory";
+    /** The broker store with sessions, subscriptions and retained messages is saved to the persistence file */
+    public static final String PERSISTENCE_FILE = "file";
+    /** Only retained messages are saved to the persistence file, everything else is kept in memory */
+    public static final String PERSISTENCE_RETAINED = "retained";
+
     public @Nullable Integer port;
     public Boolean secure = false;
     public String persistenceFile = "mqttembedded.bin";
+    public String persistenceMode = PERSISTENCE_FILE;
+    /** Interval in seconds in which the persistence file is written, if anything changed */
+    public int autosaveInterval = 30;
+    /** Interval in seconds in which metrics are published to $SYS/broker/, 0 to disable */
+    public int metricsInterval = 0;
 
     public @Nullable String username;
     public @Nullable String password;
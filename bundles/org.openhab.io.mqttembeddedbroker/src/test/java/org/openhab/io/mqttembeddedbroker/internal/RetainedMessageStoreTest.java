@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link RetainedMessageStore}.
+ *
+ * @author agent - Initial contribution
+ */
+public class RetainedMessageStoreTest {
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("retained", ".bin").toPath();
+        Files.delete(file);
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void retainAndRemove() {
+        RetainedMessageStore store = new RetainedMessageStore(file);
+        assertFalse(store.isDirty());
+
+        store.retain("a/b", 1, "on".getBytes(StandardCharsets.UTF_8));
+        assertTrue(store.isDirty());
+        assertThat(store.size(), is(1));
+
+        // An empty payload removes the retained message
+        store.retain("a/b", 1, new byte[0]);
+        assertThat(store.size(), is(0));
+    }
+
+    @Test
+    public void flushOnlyIfChangedAndLoad() throws IOException {
+        RetainedMessageStore store = new RetainedMessageStore(file);
+        store.flush();
+        assertFalse("Nothing changed, nothing should be written", Files.exists(file));
+
+        store.retain("a/b", 1, "on".getBytes(StandardCharsets.UTF_8));
+        store.retain("c", 2, "off".getBytes(StandardCharsets.UTF_8));
+        store.flush();
+        assertTrue(Files.exists(file));
+        assertFalse(store.isDirty());
+
+        RetainedMessageStore restored = new RetainedMessageStore(file);
+        restored.load();
+        assertThat(restored.size(), is(2));
+        assertThat(restored.getMessages().get("a/b").qos, is(1));
+        assertThat(new String(restored.getMessages().get("c").payload, StandardCharsets.UTF_8), is("off"));
+        assertFalse(restored.isDirty());
+    }
+
+    @Test(expected = IOException.class)
+    public void loadForeignFile() throws IOException {
+        Files.write(file, "not a retained message file".getBytes(StandardCharsets.UTF_8));
+        new RetainedMessageStore(file).load();
+    }
+}
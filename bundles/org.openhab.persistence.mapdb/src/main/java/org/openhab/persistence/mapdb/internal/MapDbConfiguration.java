@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The configuration for {@link MapDbPersistenceService}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbConfiguration {
+    /**
+     * Time window in milliseconds in which commits are coalesced into a single one. A value of 0 commits after
+     * every stored item.
+     */
+    public int commitInterval = 0;
+
+    /**
+     * Interval in milliseconds in which the last value of each item is written to the database. Items updated more
+     * often are only written once per interval. A value of 0 writes every stored value right away.
+     */
+    public int flushInterval = 0;
+
+    /**
+     * Keep every stored value in a time-ordered history instead of only the last value of each item.
+     */
+    public boolean historyEnabled = false;
+
+    /** Number of days history entries are kept, 0 keeps them forever */
+    public int retentionDays = 0;
+
+    /** Maximum number of history entries kept per item, 0 for no limit */
+    public int maxEntriesPerItem = 0;
+}
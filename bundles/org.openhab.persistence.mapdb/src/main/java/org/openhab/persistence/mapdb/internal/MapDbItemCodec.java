@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PlayPauseType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.RewindFastforwardType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+
+/**
+ * Compact binary encoding of a {@link MapDbItem}.
+ * <p>
+ * The layout is a format version byte, the timestamp in epoch milliseconds, a type tag byte and a type specific
+ * payload. The item name is not part of the encoding, it is the key under which the value is stored. The common
+ * state types are written as primitives or unscaled decimals and are restored without reflection; any other
+ * {@link State} falls back to its class name and full string representation, like the former JSON format did.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    /** Offset of the timestamp, which allows to read it without decoding the state */
+    private static final int TIMESTAMP_OFFSET = 1;
+
+    private static final byte TAG_GENERIC = 0;
+    private static final byte TAG_DECIMAL = 1;
+    private static final byte TAG_PERCENT = 2;
+    private static final byte TAG_HSB = 3;
+    private static final byte TAG_QUANTITY = 4;
+    private static final byte TAG_DATETIME = 5;
+    private static final byte TAG_STRING = 6;
+    private static final byte TAG_ONOFF = 7;
+    private static final byte TAG_OPENCLOSED = 8;
+    private static final byte TAG_UPDOWN = 9;
+    private static final byte TAG_PLAYPAUSE = 10;
+    private static final byte TAG_REWINDFASTFORWARD = 11;
+    private static final byte TAG_POINT = 12;
+    private static final byte TAG_RAW = 13;
+
+    private MapDbItemCodec() {
+        // utility class
+    }
+
+    /**
+     * Encodes the state and timestamp of the given item.
+     *
+     * @param item the item to encode
+     * @return the binary representation
+     */
+    public static byte[] encode(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(item.getTimestamp().getTime());
+            writeState(out, item.getState());
+        } catch (IOException e) {
+            // cannot happen for an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an item that was encoded with {@link #encode(MapDbItem)}.
+     *
+     * @param name the name of the item, i.e. the key the value was stored with
+     * @param data the binary representation
+     * @return the decoded item
+     * @throws IOException if the data is truncated or cannot be interpreted
+     */
+    public static MapDbItem decode(String name, byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version " + version);
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setTimestamp(new Date(in.readLong()));
+            item.setState(readState(in));
+            return item;
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads only the timestamp of an encoded item, without decoding its state.
+     *
+     * @param data the binary representation
+     * @return the timestamp in epoch milliseconds
+     * @throws IOException if the data is truncated
+     */
+    public static long decodeTimestamp(byte[] data) throws IOException {
+        if (data.length < TIMESTAMP_OFFSET + Long.BYTES) {
+            throw new IOException("Truncated data");
+        }
+        long timestamp = 0;
+        for (int i = TIMESTAMP_OFFSET; i < TIMESTAMP_OFFSET + Long.BYTES; i++) {
+            timestamp = (timestamp << 8) | (data[i] & 0xFF);
+        }
+        return timestamp;
+    }
+
+    private static void writeState(DataOutputStream out, State state) throws IOException {
+        // check subclasses first: HSBType extends PercentType extends DecimalType
+        if (state instanceof HSBType) {
+            HSBType hsb = (HSBType) state;
+            out.writeByte(TAG_HSB);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (state instanceof PercentType) {
+            out.writeByte(TAG_PERCENT);
+            writeDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (state instanceof DecimalType) {
+            out.writeByte(TAG_DECIMAL);
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else if (state instanceof QuantityType) {
+            out.writeByte(TAG_QUANTITY);
+            writeString(out, state.toFullString());
+        } else if (state instanceof DateTimeType) {
+            ZonedDateTime dateTime = ((DateTimeType) state).getZonedDateTime();
+            out.writeByte(TAG_DATETIME);
+            out.writeLong(dateTime.toInstant().getEpochSecond());
+            out.writeInt(dateTime.getNano());
+            writeString(out, dateTime.getZone().getId());
+        } else if (state instanceof StringType) {
+            out.writeByte(TAG_STRING);
+            writeString(out, state.toFullString());
+        } else if (state instanceof OnOffType) {
+            out.writeByte(TAG_ONOFF);
+            out.writeBoolean(state == OnOffType.ON);
+        } else if (state instanceof OpenClosedType) {
+            out.writeByte(TAG_OPENCLOSED);
+            out.writeBoolean(state == OpenClosedType.OPEN);
+        } else if (state instanceof UpDownType) {
+            out.writeByte(TAG_UPDOWN);
+            out.writeBoolean(state == UpDownType.UP);
+        } else if (state instanceof PlayPauseType) {
+            out.writeByte(TAG_PLAYPAUSE);
+            out.writeBoolean(state == PlayPauseType.PLAY);
+        } else if (state instanceof RewindFastforwardType) {
+            out.writeByte(TAG_REWINDFASTFORWARD);
+            out.writeBoolean(state == RewindFastforwardType.FASTFORWARD);
+        } else if (state instanceof PointType) {
+            PointType point = (PointType) state;
+            out.writeByte(TAG_POINT);
+            writeDecimal(out, point.getLatitude().toBigDecimal());
+            writeDecimal(out, point.getLongitude().toBigDecimal());
+            writeDecimal(out, point.getAltitude().toBigDecimal());
+        } else if (state instanceof RawType) {
+            RawType raw = (RawType) state;
+            out.writeByte(TAG_RAW);
+            writeString(out, raw.getMimeType());
+            writeBytes(out, raw.getBytes());
+        } else {
+            out.writeByte(TAG_GENERIC);
+            writeString(out, state.getClass().getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    private static State readState(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_HSB:
+                return new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                        new PercentType(readDecimal(in)));
+            case TAG_PERCENT:
+                return new PercentType(readDecimal(in));
+            case TAG_DECIMAL:
+                return new DecimalType(readDecimal(in));
+            case TAG_QUANTITY:
+                return QuantityType.valueOf(readString(in));
+            case TAG_DATETIME:
+                Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                return new DateTimeType(ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in))));
+            case TAG_STRING:
+                return new StringType(readString(in));
+            case TAG_ONOFF:
+                return in.readBoolean() ? OnOffType.ON : OnOffType.OFF;
+            case TAG_OPENCLOSED:
+                return in.readBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case TAG_UPDOWN:
+                return in.readBoolean() ? UpDownType.UP : UpDownType.DOWN;
+            case TAG_PLAYPAUSE:
+                return in.readBoolean() ? PlayPauseType.PLAY : PlayPauseType.PAUSE;
+            case TAG_REWINDFASTFORWARD:
+                return in.readBoolean() ? RewindFastforwardType.FASTFORWARD : RewindFastforwardType.REWIND;
+            case TAG_POINT:
+                return new PointType(new DecimalType(readDecimal(in)), new DecimalType(readDecimal(in)),
+                        new DecimalType(readDecimal(in)));
+            case TAG_RAW:
+                String mimeType = readString(in);
+                return new RawType(readBytes(in), mimeType);
+            case TAG_GENERIC:
+                return readGenericState(readString(in), readString(in));
+            default:
+                throw new IOException("Unknown state type tag " + tag);
+        }
+    }
+
+    private static State readGenericState(String typeName, String value) throws IOException {
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> stateType = (Class<? extends State>) Class.forName(typeName);
+            List<Class<? extends State>> types = Collections.singletonList(stateType);
+            State state = TypeParser.parseState(types, value);
+            if (state == null) {
+                throw new IOException("Cannot parse '" + value + "' as " + typeName);
+            }
+            return state;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unknown state type " + typeName, e);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeInt(value.scale());
+        writeBytes(out, value.unscaledValue().toByteArray());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        return new BigDecimal(new BigInteger(readBytes(in)), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+
+/**
+ * Immutable summary of the values stored for an item, kept in an index so that
+ * {@link MapDbPersistenceService#getItemInfo()} does not need to decode any stored value.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemInfo implements PersistenceItemInfo {
+
+    private static final int ENCODED_SIZE = Integer.BYTES + 2 * Long.BYTES;
+
+    private final String name;
+    private final int count;
+    private final long earliest;
+    private final long latest;
+
+    public MapDbItemInfo(String name, int count, long earliest, long latest) {
+        this.name = name;
+        this.count = count;
+        this.earliest = earliest;
+        this.latest = latest;
+    }
+
+    /**
+     * Returns the info after a value with the given timestamp has been stored.
+     *
+     * @param timestamp the timestamp of the stored value in epoch milliseconds
+     * @param keepsHistory whether the value was added to a history or replaced the last value
+     * @return the updated info
+     */
+    public MapDbItemInfo withValue(long timestamp, boolean keepsHistory) {
+        if (keepsHistory) {
+            return new MapDbItemInfo(name, count + 1, Math.min(earliest, timestamp), Math.max(latest, timestamp));
+        }
+        return new MapDbItemInfo(name, 1, timestamp, timestamp);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Integer getCount() {
+        return count;
+    }
+
+    @Override
+    public Date getEarliest() {
+        return new Date(earliest);
+    }
+
+    @Override
+    public Date getLatest() {
+        return new Date(latest);
+    }
+
+    public byte[] encode() {
+        return ByteBuffer.allocate(ENCODED_SIZE).putInt(count).putLong(earliest).putLong(latest).array();
+    }
+
+    public static MapDbItemInfo decode(String name, byte[] data) throws IOException {
+        if (data.length != ENCODED_SIZE) {
+            throw new IOException("Invalid item info length " + data.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        return new MapDbItemInfo(name, buffer.getInt(), buffer.getLong(), buffer.getLong());
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + count + " values, latest " + getLatest() + ")";
+    }
+}
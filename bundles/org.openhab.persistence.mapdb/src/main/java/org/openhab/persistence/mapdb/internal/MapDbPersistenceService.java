@@ -13,30 +13,53 @@
 package org.openhab.persistence.mapdb.internal;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.mapdb.BTreeKeySerializer;
+import org.mapdb.BTreeMap;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Fun;
+import org.mapdb.Fun.Tuple2;
+import org.mapdb.Serializer;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,7 +76,11 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", property = {
+        Constants.SERVICE_PID + "=org.openhab.mapdb",
+        ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=persistence:mapdb",
+        ConfigurableService.SERVICE_PROPERTY_LABEL + "=MapDB Persistence Service",
+        ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=persistence" })
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
@@ -62,47 +89,301 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    /** name of the map holding the JSON serialized items of former versions */
+    private static final String JSON_MAP_NAME = "itemStore";
+
+    /** name of the map holding the binary encoded items, see {@link MapDbItemCodec} */
+    private static final String MAP_NAME = "items";
+
+    /** name of the map holding all stored items keyed by name and timestamp, if the history is enabled */
+    private static final String HISTORY_MAP_NAME = "history";
+
+    /** names of the maps holding the {@link MapDbItemInfo} index, depending on whether the history is enabled */
+    private static final String ITEM_INFO_MAP_NAME = "itemInfo";
+    private static final String HISTORY_INFO_MAP_NAME = "historyInfo";
+
+    /** interval in minutes in which the retention limits of the history are applied */
+    private static final int RETENTION_INTERVAL = 60;
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
-    private ExecutorService threadPool;
+    private ScheduledExecutorService threadPool;
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private Map<String, byte[]> map;
+    private volatile @Nullable BTreeMap<Tuple2<String, Long>, byte[]> history;
+    @NonNullByDefault({})
+    private Map<String, byte[]> itemInfoMap;
+    private @Nullable ScheduledFuture<?> retentionJob;
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    private MapDbConfiguration config = new MapDbConfiguration();
+
+    /**
+     * held shared while the database is written and exclusively while it is compacted, compacting fails if there are
+     * uncommitted changes
+     */
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+
+    /** set while a group commit is scheduled but not yet executed */
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+
+    /** in-memory copy of the item info index, changes are written to {@link #itemInfoMap} on commit */
+    private final Map<String, MapDbItemInfo> itemInfos = new ConcurrentHashMap<>();
+    private final Set<String> dirtyItemInfos = ConcurrentHashMap.newKeySet();
+
+    /** latest encoded value per item that has not been written to {@link #map} yet, if a flush interval is set */
+    private final Map<String, byte[]> pendingItems = new ConcurrentHashMap<>();
 
     private transient Gson mapper = new GsonBuilder()
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
-    public void activate() {
+    public void activate(final Map<String, Object> properties) {
+        activate(properties, new File(DB_FOLDER_NAME));
+    }
+
+    void activate(final Map<String, Object> properties, File folder) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        config = new Configuration(properties).as(MapDbConfiguration.class);
+        threadPool = ThreadPoolManager.getScheduledPool(getClass().getSimpleName());
 
-        File folder = new File(DB_FOLDER_NAME);
         if (!folder.exists()) {
             if (!folder.mkdirs()) {
-                logger.warn("Failed to create one or more directories in the path '{}'", DB_FOLDER_NAME);
+                logger.warn("Failed to create one or more directories in the path '{}'", folder);
                 logger.warn("MapDB persistence service activation has failed.");
                 return;
             }
         }
 
-        File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
+        File dbFile = new File(folder, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-        map = db.createTreeMap("itemStore").makeOrGet();
+        map = db.createTreeMap(MAP_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        migrateJsonItems();
+        if (config.historyEnabled) {
+            activateHistory();
+        }
+        loadItemInfos();
+        if (config.flushInterval > 0) {
+            flushJob = threadPool.scheduleWithFixedDelay(this::flush, config.flushInterval, config.flushInterval,
+                    TimeUnit.MILLISECONDS);
+        }
         logger.debug("MapDB persistence service is now activated");
     }
 
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> retentionJob = this.retentionJob;
+        if (retentionJob != null) {
+            retentionJob.cancel(false);
+            this.retentionJob = null;
+        }
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
         if (db != null) {
+            commitScheduled.set(false);
+            writePendingItems();
+            doCommit();
             db.close();
         }
-        threadPool.shutdown();
+    }
+
+    /**
+     * Converts the JSON serialized items written by former versions of this service into the binary format and
+     * removes the old map afterwards.
+     */
+    private void migrateJsonItems() {
+        if (!db.exists(JSON_MAP_NAME)) {
+            return;
+        }
+        Map<String, String> jsonMap = db.getTreeMap(JSON_MAP_NAME);
+        logger.info("Migrating {} items of the MapDB persistence service to the binary format", jsonMap.size());
+        for (Entry<String, String> entry : jsonMap.entrySet()) {
+            Optional<MapDbItem> item = deserializeJson(entry.getValue());
+            if (item.isPresent() && !map.containsKey(entry.getKey())) {
+                map.put(entry.getKey(), MapDbItemCodec.encode(item.get()));
+            }
+        }
+        db.delete(JSON_MAP_NAME);
+        db.commit();
+    }
+
+    /**
+     * Opens the history map, seeds it with the last stored value of items that have no history yet and schedules
+     * the retention job if any limit is configured.
+     */
+    private void activateHistory() {
+        BTreeMap<Tuple2<String, Long>, byte[]> history = db.createTreeMap(HISTORY_MAP_NAME)
+                .keySerializer(BTreeKeySerializer.TUPLE2).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        for (Entry<String, byte[]> entry : map.entrySet()) {
+            if (itemHistory(history, entry.getKey()).isEmpty()) {
+                try {
+                    long timestamp = MapDbItemCodec.decodeTimestamp(entry.getValue());
+                    history.put(Fun.t2(entry.getKey(), timestamp), entry.getValue());
+                } catch (IOException e) {
+                    logger.warn("Couldn't add item '{}' to the history: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+        db.commit();
+        this.history = history;
+
+        if (config.retentionDays > 0 || config.maxEntriesPerItem > 0) {
+            retentionJob = threadPool.scheduleWithFixedDelay(() -> applyRetention(System.currentTimeMillis()), 1,
+                    RETENTION_INTERVAL, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Removes all history entries that are older than the configured retention time or exceed the configured
+     * number of entries per item and compacts the database afterwards. The newest entry of every item is always kept,
+     * it holds the state restored on startup.
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    void applyRetention(long now) {
+        BTreeMap<Tuple2<String, Long>, byte[]> history = this.history;
+        if (history == null) {
+            return;
+        }
+        try {
+            int removed;
+            Lock lock = storeLock.readLock();
+            lock.lock();
+            try {
+                removed = removeExpiredHistory(history, now);
+            } finally {
+                lock.unlock();
+            }
+            if (removed > 0) {
+                logger.debug("Removed {} history entries exceeding the retention limits", removed);
+                compact();
+            }
+        } catch (RuntimeException | IllegalAccessError e) {
+            // MapDB reports a failed compaction with an IllegalAccessError
+            logger.warn("Failed to apply the retention limits to the MapDB history: {}", e.getMessage(), e);
+        }
+    }
+
+    private int removeExpiredHistory(BTreeMap<Tuple2<String, Long>, byte[]> history, long now) {
+        long cutoff = config.retentionDays > 0 ? now - TimeUnit.DAYS.toMillis(config.retentionDays) : Long.MIN_VALUE;
+        int removed = 0;
+        for (String name : map.keySet()) {
+            int removedForItem = 0;
+            ConcurrentNavigableMap<Tuple2<String, Long>, byte[]> itemHistory = itemHistory(history, name);
+            if (itemHistory.isEmpty()) {
+                continue;
+            }
+            Tuple2<String, Long> newest = itemHistory.lastKey();
+            int excess = config.maxEntriesPerItem > 0 ? itemHistory.size() - config.maxEntriesPerItem : 0;
+            Iterator<Tuple2<String, Long>> iterator = itemHistory.keySet().iterator();
+            while (iterator.hasNext()) {
+                Tuple2<String, Long> key = iterator.next();
+                if (key.equals(newest) || (excess <= 0 && key.b >= cutoff)) {
+                    break;
+                }
+                iterator.remove();
+                excess--;
+                removedForItem++;
+            }
+            if (removedForItem > 0) {
+                putItemInfo(name, createItemInfo(history, name));
+                removed += removedForItem;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Commits all changes and compacts the database. Stores wait until the compaction is done.
+     */
+    private void compact() {
+        Lock lock = storeLock.writeLock();
+        lock.lock();
+        try {
+            doCommit();
+            db.compact();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Loads the item info index and rebuilds it if it does not contain exactly the stored items, e.g. on the first
+     * start or after the history has been enabled or disabled.
+     */
+    private void loadItemInfos() {
+        BTreeMap<Tuple2<String, Long>, byte[]> history = this.history;
+        String infoMapName = history != null ? HISTORY_INFO_MAP_NAME : ITEM_INFO_MAP_NAME;
+        String staleInfoMapName = history != null ? ITEM_INFO_MAP_NAME : HISTORY_INFO_MAP_NAME;
+        if (db.exists(staleInfoMapName)) {
+            db.delete(staleInfoMapName);
+        }
+        itemInfoMap = db.createTreeMap(infoMapName).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+
+        itemInfos.clear();
+        for (Entry<String, byte[]> entry : itemInfoMap.entrySet()) {
+            try {
+                itemInfos.put(entry.getKey(), MapDbItemInfo.decode(entry.getKey(), entry.getValue()));
+            } catch (IOException e) {
+                logger.debug("Discarding invalid item info of '{}': {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (itemInfos.keySet().equals(map.keySet())) {
+            return;
+        }
+
+        logger.debug("Rebuilding the MapDB item info index for {} items", map.size());
+        itemInfos.clear();
+        itemInfoMap.clear();
+        for (String name : map.keySet()) {
+            putItemInfo(name, createItemInfo(history, name));
+        }
+        doCommit();
+    }
+
+    private @Nullable MapDbItemInfo createItemInfo(@Nullable BTreeMap<Tuple2<String, Long>, byte[]> history,
+            String name) {
+        if (history != null) {
+            ConcurrentNavigableMap<Tuple2<String, Long>, byte[]> itemHistory = itemHistory(history, name);
+            if (itemHistory.isEmpty()) {
+                return null;
+            }
+            return new MapDbItemInfo(name, itemHistory.size(), itemHistory.firstKey().b, itemHistory.lastKey().b);
+        }
+        byte[] data = map.get(name);
+        if (data == null) {
+            return null;
+        }
+        try {
+            long timestamp = MapDbItemCodec.decodeTimestamp(data);
+            return new MapDbItemInfo(name, 1, timestamp, timestamp);
+        } catch (IOException e) {
+            logger.warn("Couldn't read the timestamp of item '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putItemInfo(String name, @Nullable MapDbItemInfo info) {
+        if (info != null) {
+            itemInfos.put(name, info);
+        } else {
+            itemInfos.remove(name);
+        }
+        dirtyItemInfos.add(name);
+    }
+
+    private static ConcurrentNavigableMap<Tuple2<String, Long>, byte[]> itemHistory(
+            BTreeMap<Tuple2<String, Long>, byte[]> history, String name) {
+        return history.subMap(Fun.t2(name, Long.MIN_VALUE), true, Fun.t2(name, Long.MAX_VALUE), true);
     }
 
     @Override
@@ -117,10 +398,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream()
-                .map(this::deserialize)
-                .flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo>toSet());
+        return new HashSet<PersistenceItemInfo>(itemInfos.values());
     }
 
     @Override
@@ -145,30 +423,131 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
+        byte[] data = MapDbItemCodec.encode(mItem);
+        boolean buffered = config.flushInterval > 0;
+        BTreeMap<Tuple2<String, Long>, byte[]> history = this.history;
+        boolean keepsHistory = history != null;
+        Lock lock = storeLock.readLock();
+        lock.lock();
+        try {
+            if (history != null) {
+                // a value stored within the same millisecond as the previous one is recorded a millisecond later
+                // instead of replacing it
+                while (history.putIfAbsent(Fun.t2(alias, mItem.getTimestamp().getTime()), data) != null) {
+                    mItem.setTimestamp(new Date(mItem.getTimestamp().getTime() + 1));
+                    data = MapDbItemCodec.encode(mItem);
+                }
+            }
+            if (buffered) {
+                pendingItems.put(alias, data);
+            } else {
+                map.put(alias, data);
+            }
+        } finally {
+            lock.unlock();
+        }
+        long timestamp = mItem.getTimestamp().getTime();
+        itemInfos.compute(alias, (name, info) -> info == null ? new MapDbItemInfo(name, 1, timestamp, timestamp)
+                : info.withValue(timestamp, keepsHistory));
+        dirtyItemInfos.add(alias);
+        // buffered items and their infos are committed by the flush job, the history has to be committed right away
+        if (!buffered || keepsHistory) {
+            commit();
+        }
         logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String name = filter.getItemName();
+        BTreeMap<Tuple2<String, Long>, byte[]> history = this.history;
+        if (history != null) {
+            return queryHistory(history, filter);
+        }
+        byte[] data = pendingItems.get(name);
+        if (data == null) {
+            data = map.get(name);
+        }
+        if (data == null) {
             return Collections.emptyList();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = deserialize(name, data);
         if (!item.isPresent()) {
             return Collections.emptyList();
         }
         return Collections.singletonList(item.get());
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    /**
+     * Answers the query with a range scan over the history of the item, so only the requested page is decoded.
+     */
+    private List<HistoricItem> queryHistory(BTreeMap<Tuple2<String, Long>, byte[]> history, FilterCriteria filter) {
+        String name = filter.getItemName();
+        if (name == null) {
+            return Collections.emptyList();
+        }
+        Date beginDate = filter.getBeginDate();
+        Date endDate = filter.getEndDate();
+        long begin = beginDate != null ? beginDate.getTime() : Long.MIN_VALUE;
+        long end = endDate != null ? endDate.getTime() : Long.MAX_VALUE;
+        if (begin > end) {
+            return Collections.emptyList();
+        }
+
+        ConcurrentNavigableMap<Tuple2<String, Long>, byte[]> range = history.subMap(Fun.t2(name, begin), true,
+                Fun.t2(name, end), true);
+        if (filter.getOrdering() == Ordering.DESCENDING) {
+            range = range.descendingMap();
+        }
+        return range.values().stream()
+                .map(data -> deserialize(name, data))
+                .flatMap(MapDbPersistenceService::streamOptional)
+                .filter(item -> matchesState(filter, item.getState()))
+                .skip((long) filter.getPageNumber() * filter.getPageSize())
+                .limit(filter.getPageSize())
+                .collect(Collectors.<HistoricItem>toList());
     }
 
-    private Optional<MapDbItem> deserialize(String json) {
+    private static boolean matchesState(FilterCriteria filter, State state) {
+        State filterState = filter.getState();
+        if (filterState == null) {
+            return true;
+        }
+        switch (filter.getOperator()) {
+            case EQ:
+                return filterState.equals(state);
+            case NEQ:
+                return !filterState.equals(state);
+            default:
+                if (!(filterState instanceof DecimalType) || !(state instanceof DecimalType)) {
+                    return false;
+                }
+                int comparison = ((DecimalType) state).compareTo((DecimalType) filterState);
+                switch (filter.getOperator()) {
+                    case GT:
+                        return comparison > 0;
+                    case GTE:
+                        return comparison >= 0;
+                    case LT:
+                        return comparison < 0;
+                    case LTE:
+                        return comparison <= 0;
+                    default:
+                        return false;
+                }
+        }
+    }
+
+    private Optional<MapDbItem> deserialize(String name, byte[] data) {
+        try {
+            return Optional.of(MapDbItemCodec.decode(name, data));
+        } catch (IOException e) {
+            logger.warn("Couldn't deserialize item '{}': {}", name, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<MapDbItem> deserializeJson(String json) {
         MapDbItem item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
@@ -177,8 +556,79 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
+    /**
+     * Commits the database, either right away or, if a commit interval is configured, together with all other
+     * changes within that interval.
+     */
     private void commit() {
-        threadPool.submit(() -> db.commit());
+        int commitInterval = config.commitInterval;
+        if (commitInterval <= 0) {
+            threadPool.submit(this::doCommit);
+        } else if (commitScheduled.compareAndSet(false, true)) {
+            threadPool.schedule(this::groupCommit, commitInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void groupCommit() {
+        if (commitScheduled.getAndSet(false)) {
+            doCommit();
+        }
+    }
+
+    /**
+     * Writes the buffered items to the database and commits them.
+     */
+    private void flush() {
+        if (writePendingItems() > 0 || !dirtyItemInfos.isEmpty()) {
+            doCommit();
+        }
+    }
+
+    /**
+     * Moves the buffered items to {@link #map}, keeping values that were buffered in the meantime.
+     *
+     * @return the number of written items
+     */
+    private int writePendingItems() {
+        int written = 0;
+        Lock lock = storeLock.readLock();
+        lock.lock();
+        try {
+            for (Entry<String, byte[]> entry : pendingItems.entrySet()) {
+                map.put(entry.getKey(), entry.getValue());
+                pendingItems.remove(entry.getKey(), entry.getValue());
+                written++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return written;
+    }
+
+    /**
+     * Writes the changed item infos to the index and commits them together with the stored items, so that the index
+     * stays consistent with the items across restarts.
+     */
+    private void doCommit() {
+        Lock lock = storeLock.readLock();
+        lock.lock();
+        try {
+            synchronized (dirtyItemInfos) {
+                for (Iterator<String> iterator = dirtyItemInfos.iterator(); iterator.hasNext();) {
+                    String name = iterator.next();
+                    iterator.remove();
+                    MapDbItemInfo info = itemInfos.get(name);
+                    if (info != null) {
+                        itemInfoMap.put(name, info.encode());
+                    } else {
+                        itemInfoMap.remove(name);
+                    }
+                }
+                db.commit();
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
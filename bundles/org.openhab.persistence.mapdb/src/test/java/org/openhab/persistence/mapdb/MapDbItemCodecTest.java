@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemCodec;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbItemCodecTest {
+
+    @Test
+    public void encodeDecodeRoundtripShouldRecreateTheEncodedState() throws IOException {
+        assertThat(roundtrip(OnOffType.ON), is(equalTo(OnOffType.ON)));
+        assertThat(roundtrip(OpenClosedType.CLOSED), is(equalTo(OpenClosedType.CLOSED)));
+        assertThat(roundtrip(PercentType.HUNDRED), is(equalTo(PercentType.HUNDRED)));
+        assertThat(roundtrip(HSBType.GREEN), is(equalTo(HSBType.GREEN)));
+        assertThat(roundtrip(new DecimalType("-1234.5678")), is(equalTo(new DecimalType("-1234.5678"))));
+        assertThat(roundtrip(new QuantityType<>("21.5 °C")), is(equalTo(new QuantityType<>("21.5 °C"))));
+        assertThat(roundtrip(new PointType("52.5,13.4,34")), is(equalTo(new PointType("52.5,13.4,34"))));
+        assertThat(roundtrip(StringType.valueOf("test")), is(equalTo(StringType.valueOf("test"))));
+        DateTimeType dateTime = new DateTimeType("2019-03-01T12:34:56.789+01:00");
+        assertThat(roundtrip(dateTime), is(equalTo(dateTime)));
+    }
+
+    @Test
+    public void decodeShouldRestoreNameAndTimestamp() throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setName("ignored");
+        item.setState(OnOffType.OFF);
+        item.setTimestamp(new Date(1551439696789L));
+
+        byte[] data = MapDbItemCodec.encode(item);
+        MapDbItem decoded = MapDbItemCodec.decode("item", data);
+
+        assertThat(decoded.getName(), is("item"));
+        assertThat(decoded.getTimestamp(), is(equalTo(item.getTimestamp())));
+        assertThat(MapDbItemCodec.decodeTimestamp(data), is(1551439696789L));
+    }
+
+    @Test(expected = IOException.class)
+    public void decodeShouldFailForTruncatedData() throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setState(StringType.valueOf("test"));
+        byte[] data = MapDbItemCodec.encode(item);
+
+        byte[] truncated = new byte[data.length - 2];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        MapDbItemCodec.decode("item", truncated);
+    }
+
+    private State roundtrip(State state) throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        return MapDbItemCodec.decode("item", MapDbItemCodec.encode(item)).getState();
+    }
+}
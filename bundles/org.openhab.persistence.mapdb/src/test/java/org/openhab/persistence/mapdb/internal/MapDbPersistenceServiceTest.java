@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+/**
+ * Tests for {@link MapDbPersistenceService}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbPersistenceServiceTest {
+    private static final String ITEM_NAME = "number";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, Object> config = new HashMap<>();
+    private MapDbPersistenceService service;
+    private File dbFolder;
+
+    @Before
+    public void setUp() {
+        dbFolder = new File(folder.getRoot(), "mapdb");
+        config.put("historyEnabled", true);
+    }
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.deactivate();
+        }
+    }
+
+    @Test
+    public void queryReturnsTheHistoryInTheRequestedOrder() {
+        activate();
+        storeValues(1, 2, 3, 4, 5);
+
+        assertThat(queryStates(filter()), is(states(1, 2, 3, 4, 5)));
+        FilterCriteria descending = filter();
+        descending.setOrdering(Ordering.DESCENDING);
+        assertThat(queryStates(descending), is(states(5, 4, 3, 2, 1)));
+        FilterCriteria page = filter();
+        page.setPageSize(2);
+        page.setPageNumber(1);
+        assertThat(queryStates(page), is(states(3, 4)));
+    }
+
+    @Test
+    public void queryReturnsTheValuesWithinTheRequestedTime() {
+        activate();
+        storeValues(1, 2, 3, 4, 5);
+        List<HistoricItem> all = query(filter());
+
+        FilterCriteria range = filter();
+        range.setBeginDate(all.get(1).getTimestamp());
+        range.setEndDate(all.get(3).getTimestamp());
+
+        assertThat(queryStates(range), is(states(2, 3, 4)));
+    }
+
+    @Test
+    public void valuesStoredWithinTheSameMillisecondAreKept() {
+        activate();
+        int count = 500;
+        for (int i = 0; i < count; i++) {
+            storeValues(i);
+        }
+
+        List<HistoricItem> history = query(filter());
+        assertThat(history.size(), is(count));
+        for (int i = 1; i < count; i++) {
+            assertThat(history.get(i).getState(), is(new DecimalType(i)));
+            assertThat(history.get(i).getTimestamp().after(history.get(i - 1).getTimestamp()), is(true));
+        }
+        assertThat(getItemInfo().getCount(), is(count));
+    }
+
+    @Test
+    public void retentionRemovesTheOldestEntriesExceedingTheLimit() {
+        config.put("maxEntriesPerItem", 3);
+        activate();
+        storeValues(1, 2, 3, 4, 5);
+
+        service.applyRetention(System.currentTimeMillis());
+
+        assertThat(queryStates(filter()), is(states(3, 4, 5)));
+        assertThat(getItemInfo().getCount(), is(3));
+    }
+
+    @Test
+    public void retentionKeepsTheNewestEntryOfEveryItem() {
+        config.put("retentionDays", 1);
+        activate();
+        storeValues(1, 2, 3);
+
+        service.applyRetention(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(2));
+
+        assertThat(queryStates(filter()), is(states(3)));
+        assertThat(getItemInfo().getCount(), is(1));
+    }
+
+    @Test
+    public void retentionKeepsTheHistoryAcrossRestarts() {
+        config.put("maxEntriesPerItem", 2);
+        activate();
+        storeValues(1, 2, 3);
+        service.applyRetention(System.currentTimeMillis());
+        storeValues(4);
+
+        restart();
+
+        assertThat(queryStates(filter()), is(states(2, 3, 4)));
+        assertThat(getItemInfo().getCount(), is(3));
+    }
+
+    @Test
+    public void itemInfoIsRestoredAfterRestart() {
+        config.put("historyEnabled", false);
+        activate();
+        storeValues(1, 2);
+        Date latest = getItemInfo().getLatest();
+
+        restart();
+
+        assertThat(getItemInfo().getCount(), is(1));
+        assertThat(getItemInfo().getLatest(), is(latest));
+    }
+
+    @Test
+    public void staleItemInfoIndexIsRebuilt() {
+        config.put("historyEnabled", false);
+        activate();
+        storeValues(1);
+        service.deactivate();
+
+        // replace the entry of the stored item by one of an unknown item, so the number of entries still matches
+        DB db = DBMaker.newFileDB(new File(dbFolder, "storage.mapdb")).make();
+        Map<String, byte[]> itemInfoMap = db.getTreeMap("itemInfo");
+        itemInfoMap.remove(ITEM_NAME);
+        itemInfoMap.put("unknown", new MapDbItemInfo("unknown", 1, 0, 0).encode());
+        db.commit();
+        db.close();
+        activate();
+
+        Set<String> names = new HashSet<>();
+        for (PersistenceItemInfo info : service.getItemInfo()) {
+            names.add(info.getName());
+        }
+        assertThat(names, is(Collections.singleton(ITEM_NAME)));
+    }
+
+    @Test
+    public void bufferedValueIsQueriedAndWrittenOnDeactivate() {
+        config.put("historyEnabled", false);
+        config.put("flushInterval", (int) TimeUnit.HOURS.toMillis(1));
+        activate();
+        storeValues(1, 2);
+
+        // the value is still buffered, the flush job runs only once an hour
+        assertThat(queryStates(filter()), is(states(2)));
+
+        restart();
+
+        assertThat(queryStates(filter()), is(states(2)));
+        assertThat(getItemInfo().getCount(), is(1));
+    }
+
+    private void activate() {
+        service = new MapDbPersistenceService();
+        service.activate(config, dbFolder);
+    }
+
+    private void restart() {
+        service.deactivate();
+        activate();
+    }
+
+    private void storeValues(int... values) {
+        NumberItem item = new NumberItem(ITEM_NAME);
+        for (int value : values) {
+            item.setState(new DecimalType(value));
+            service.store(item);
+        }
+    }
+
+    private FilterCriteria filter() {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(ITEM_NAME);
+        filter.setOrdering(Ordering.ASCENDING);
+        return filter;
+    }
+
+    private List<HistoricItem> query(FilterCriteria filter) {
+        List<HistoricItem> result = new ArrayList<>();
+        service.query(filter).forEach(result::add);
+        return result;
+    }
+
+    private List<State> queryStates(FilterCriteria filter) {
+        List<State> states = new ArrayList<>();
+        for (HistoricItem item : query(filter)) {
+            states.add(item.getState());
+        }
+        return states;
+    }
+
+    private static List<State> states(int... values) {
+        List<State> states = new ArrayList<>();
+        for (int value : values) {
+            states.add(new DecimalType(value));
+        }
+        return states;
+    }
+
+    private PersistenceItemInfo getItemInfo() {
+        for (PersistenceItemInfo info : service.getItemInfo()) {
+            if (ITEM_NAME.equals(info.getName())) {
+                return info;
+            }
+        }
+        throw new AssertionError("No item info for " + ITEM_NAME);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A pre compiled script that keeps track of its execution times. Every execution gets its own script context
+ * ({@link Bindings}), as the engine scope holds the script's global variables and functions which must not leak into
+ * the next transformation.
+ * <p>
+ * There is deliberately no pool of engines or contexts: a Nashorn {@link CompiledScript} can be evaluated by several
+ * threads at once as long as each of them uses its own {@link Bindings}, so concurrent transformations never wait for
+ * each other. A pooled context would be reused by later transformations and carry over their global state, and
+ * global {@code var} and {@code function} declarations cannot be removed from it. A pool of separate engines would
+ * have the same problem per engine and only save the creation of the bindings.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class CachedScript {
+
+    private final String filename;
+    private final CompiledScript compiledScript;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalExecutionNanos = new LongAdder();
+    private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+    /**
+     * @param filename name of the JavaScript file
+     * @param compiledScript the pre compiled script
+     */
+    public CachedScript(String filename, CompiledScript compiledScript) {
+        this.filename = filename;
+        this.compiledScript = compiledScript;
+    }
+
+    /**
+     * Executes the script with the given input in a new context.
+     *
+     * @param input the value of the 'input' variable
+     * @return the result of the script
+     * @throws ScriptException if the script fails
+     */
+    public Object eval(String input) throws ScriptException {
+        final Bindings bindings = compiledScript.getEngine().createBindings();
+        bindings.put("input", input);
+        final long startTime = System.nanoTime();
+        try {
+            return compiledScript.eval(bindings);
+        } finally {
+            recordExecution(System.nanoTime() - startTime);
+        }
+    }
+
+    private void recordExecution(long nanos) {
+        executions.increment();
+        totalExecutionNanos.add(nanos);
+        maxExecutionNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return the number of executions of this script
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return the average execution time of this script in microseconds
+     */
+    public long getAverageExecutionTime() {
+        long count = executions.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalExecutionNanos.sum() / count);
+    }
+
+    /**
+     * @return the longest execution time of this script in microseconds
+     */
+    public long getMaxExecutionTime() {
+        return TimeUnit.NANOSECONDS.toMicros(maxExecutionNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return filename + " (" + getExecutions() + " executions, avg " + getAverageExecutionTime() + " µs, max "
+                + getMaxExecutionTime() + " µs)";
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link JavaScriptConsoleCommandExtension} lists the cached JavaScript transformations together with their
+ * execution time metrics.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+public class JavaScriptConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATISTICS = "statistics";
+
+    private JavaScriptEngineManager manager;
+
+    public JavaScriptConsoleCommandExtension() {
+        super("jstransform", "JavaScript transformation commands.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_STATISTICS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        Collection<CachedScript> scripts = manager.getScripts();
+        if (scripts.isEmpty()) {
+            console.println("No JavaScript transformation has been executed yet.");
+            return;
+        }
+        console.println(String.format("%-40s %12s %12s %12s", "Script", "Executions", "Avg (µs)", "Max (µs)"));
+        for (CachedScript script : scripts) {
+            console.println(String.format("%-40s %12d %12d %12d", script.getFilename(), script.getExecutions(),
+                    script.getAverageExecutionTime(), script.getMaxExecutionTime()));
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(
+                buildCommandUsage(SUBCMD_STATISTICS, "list the cached scripts and their execution times"));
+    }
+
+    @Reference
+    protected void setJavaScriptEngineManager(JavaScriptEngineManager manager) {
+        this.manager = manager;
+    }
+
+    protected void unsetJavaScriptEngineManager(JavaScriptEngineManager manager) {
+        this.manager = null;
+    }
+}
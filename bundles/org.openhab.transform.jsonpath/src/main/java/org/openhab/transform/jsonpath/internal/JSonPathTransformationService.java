@@ -12,7 +12,11 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +28,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -41,8 +46,33 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /** maximum number of compiled expressions kept in the cache */
+    private static final int MAX_CACHED_EXPRESSIONS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    /**
+     * JsonPath objects compiled from the expressions of all channels and profiles using JSONPATH. Only a bounded
+     * number is kept, an expression that has not been used for the longest time is compiled again when needed.
+     */
+    private final Map<String, JsonPath> compiledExpressions = Collections
+            .synchronizedMap(new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+                    return size() > MAX_CACHED_EXPRESSIONS;
+                }
+            });
+
+    /**
+     * Documents parsed from the sources that are still in use. Channels sharing a topic transform the same payload
+     * with different expressions, which then only needs to be parsed once, also while other topics are transformed
+     * concurrently. An entry is dropped once its source string is no longer referenced by the caller, the document
+     * itself does not refer to it.
+     */
+    private final Map<String, DocumentContext> parsedSources = Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -59,23 +89,51 @@ public class JSonPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
+        DocumentContext document = parse(source);
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
-            logger.debug("transformation resulted in '{}'", transformationResult);
-            if (transformationResult == null) {
-                return null;
-            } else if (transformationResult instanceof List) {
-                return flattenList((List<?>) transformationResult);
-            } else {
-                return transformationResult.toString();
-            }
+            return evaluate(jsonPathExpression, document);
         } catch (PathNotFoundException e) {
             throw new TransformationException("Invalid path '" + jsonPathExpression + "' in '" + source + "'");
-        } catch (InvalidPathException | InvalidJsonException e) {
+        } catch (InvalidPathException e) {
             throw new TransformationException("An error occurred while transforming JSON expression.", e);
         }
     }
 
+    private DocumentContext parse(String source) throws TransformationException {
+        DocumentContext document = parsedSources.get(source);
+        if (document != null) {
+            return document;
+        }
+        try {
+            document = JsonPath.parse(source);
+            parsedSources.put(source, document);
+            return document;
+        } catch (InvalidJsonException e) {
+            throw new TransformationException("An error occurred while transforming JSON expression.", e);
+        }
+    }
+
+    private @Nullable String evaluate(String jsonPathExpression, DocumentContext document) {
+        Object transformationResult = document.read(compile(jsonPathExpression));
+        logger.debug("transformation resulted in '{}'", transformationResult);
+        if (transformationResult == null) {
+            return null;
+        } else if (transformationResult instanceof List) {
+            return flattenList((List<?>) transformationResult);
+        } else {
+            return transformationResult.toString();
+        }
+    }
+
+    private JsonPath compile(String jsonPathExpression) {
+        JsonPath jsonPath = compiledExpressions.get(jsonPathExpression);
+        if (jsonPath == null) {
+            jsonPath = JsonPath.compile(jsonPathExpression);
+            compiledExpressions.put(jsonPathExpression, jsonPath);
+        }
+        return jsonPath;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
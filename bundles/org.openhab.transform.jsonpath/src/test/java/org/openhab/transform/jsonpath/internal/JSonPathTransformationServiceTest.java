@@ -129,4 +129,28 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testSameSourceWithSeveralExpressions() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("2", processor.transform("$[1].id", jsonArray));
+    }
+
+    @Test
+    public void testRepeatedTransformWithChangingSource() throws TransformationException {
+        assertEquals("1", processor.transform("$.id", "{\"id\":1}"));
+        assertEquals("1", processor.transform("$.id", "{\"id\":1}"));
+        assertEquals("2", processor.transform("$.id", "{\"id\":2}"));
+    }
+
+    @Test
+    public void testInterleavedSources() throws TransformationException {
+        String first = "{\"id\":1,\"name\":\"bob\"}";
+        String second = "{\"id\":2,\"name\":\"alice\"}";
+        assertEquals("1", processor.transform("$.id", first));
+        assertEquals("2", processor.transform("$.id", second));
+        assertEquals("bob", processor.transform("$.name", first));
+        assertEquals("alice", processor.transform("$.name", second));
+    }
 }
@@ -110,4 +110,65 @@ public class Range {
         return true;
     }
 
+    /**
+     * @return true if no value can be contained in this range, e.g. for ]0..0[
+     */
+    public boolean isEmpty() {
+        if (min == null || max == null) {
+            return false;
+        }
+        int cmp = min.compareTo(max);
+        return cmp > 0 || (cmp == 0 && !(minInclusive && maxInclusive));
+    }
+
+    /**
+     * @return true if there is a value that is contained in both this and the other range
+     */
+    public boolean overlaps(final Range other) {
+        return !isEmpty() && !other.isEmpty() && startsBeforeEndOf(other) && other.startsBeforeEndOf(this);
+    }
+
+    private boolean startsBeforeEndOf(final Range other) {
+        if (min == null || other.max == null) {
+            return true;
+        }
+        int cmp = min.compareTo(other.max);
+        return cmp < 0 || (cmp == 0 && minInclusive && other.maxInclusive);
+    }
+
+    /**
+     * Orders ranges by their lower bound, unbounded ranges first and inclusive before exclusive bounds.
+     */
+    static int compareByMin(final Range first, final Range second) {
+        if (first.min == null || second.min == null) {
+            return first.min == null ? (second.min == null ? 0 : -1) : 1;
+        }
+        int cmp = first.min.compareTo(second.min);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Boolean.compare(second.minInclusive, first.minInclusive);
+    }
+
+    /**
+     * Orders ranges by their upper bound, unbounded ranges last and exclusive before inclusive bounds.
+     */
+    static int compareByMax(final Range first, final Range second) {
+        if (first.max == null || second.max == null) {
+            return first.max == null ? (second.max == null ? 0 : 1) : -1;
+        }
+        int cmp = first.max.compareTo(second.max);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Boolean.compare(first.maxInclusive, second.maxInclusive);
+    }
+
+    /**
+     * @return true if the lower bound of this range is not above the given value, ignoring its inclusiveness
+     */
+    boolean startsAtOrBelow(final BigDecimal value) {
+        return min == null || min.compareTo(value) <= 0;
+    }
+
 }
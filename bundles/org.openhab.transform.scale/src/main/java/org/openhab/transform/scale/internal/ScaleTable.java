@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The content of a scale file, indexed for fast lookups.
+ * <p>
+ * A value is mapped to the label of the first range in file order that contains it. Ranges that do not overlap any
+ * other range are sorted by their lower bound and looked up by binary search, as at most one range can contain the
+ * value in that case. Only the remaining, overlapping ranges are tested one by one in file order.
+ *
+ * @author agent - Initial contribution
+ */
+public class ScaleTable {
+
+    private final String format;
+    private final String nonNumeric;
+
+    /** ranges that do not overlap any other range, sorted by their lower bound */
+    private final Range[] sortedRanges;
+    private final String[] sortedLabels;
+
+    /** ranges that overlap another range, in file order */
+    private final Map<Range, String> overlappingRanges = new LinkedHashMap<>();
+
+    /**
+     * Creates the table.
+     *
+     * @param ranges the ranges and their labels in file order
+     * @param format the format of the result, containing the value and label placeholders
+     * @param nonNumeric the label for non numeric values or null if there is none
+     */
+    public ScaleTable(Map<Range, String> ranges, String format, String nonNumeric) {
+        this.format = format;
+        this.nonNumeric = nonNumeric;
+
+        List<Range> candidates = new ArrayList<>();
+        for (Range range : ranges.keySet()) {
+            if (!range.isEmpty()) {
+                candidates.add(range);
+            }
+        }
+        candidates.sort(Range::compareByMin);
+
+        // In lower bound order, a range overlaps an earlier range exactly if it overlaps the earlier range reaching
+        // furthest, and it overlaps a later range exactly if it overlaps its direct successor.
+        Set<Range> overlapping = Collections.newSetFromMap(new IdentityHashMap<>());
+        Range furthest = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Range range = candidates.get(i);
+            if ((furthest != null && range.overlaps(furthest))
+                    || (i + 1 < candidates.size() && range.overlaps(candidates.get(i + 1)))) {
+                overlapping.add(range);
+            }
+            if (furthest == null || Range.compareByMax(range, furthest) > 0) {
+                furthest = range;
+            }
+        }
+
+        List<Range> indexed = new ArrayList<>();
+        for (Range range : candidates) {
+            if (!overlapping.contains(range)) {
+                indexed.add(range);
+            }
+        }
+        for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+            if (overlapping.contains(entry.getKey())) {
+                overlappingRanges.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        sortedRanges = indexed.toArray(new Range[indexed.size()]);
+        sortedLabels = new String[sortedRanges.length];
+        for (int i = 0; i < sortedRanges.length; i++) {
+            sortedLabels[i] = ranges.get(sortedRanges[i]);
+        }
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the label for non numeric values or null if there is none
+     */
+    public String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Returns the label of the first range in file order that contains the given value.
+     *
+     * @param value the value to look up
+     * @return the label or null if no range contains the value
+     */
+    public String lookup(final BigDecimal value) {
+        // the last range starting at or below the value, or the one before it if they meet at the value
+        int low = 0;
+        int high = sortedRanges.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (sortedRanges[middle].startsAtOrBelow(value)) {
+                candidate = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        for (int i = candidate; i >= 0 && i >= candidate - 1; i--) {
+            if (sortedRanges[i].contains(value)) {
+                return sortedLabels[i];
+            }
+        }
+
+        for (Map.Entry<Range, String> entry : overlappingRanges.entrySet()) {
+            if (entry.getKey().contains(value)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -14,7 +14,10 @@ package org.openhab.transform.scale.internal;
 
 import static org.junit.Assert.fail;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.measure.quantity.Dimensionless;
 
@@ -150,4 +153,34 @@ public class ScaleTransformServiceTest {
         Assert.assertEquals("Correcte (992) !", transformedResponse);
     }
 
+    @Test
+    public void testLookupInIndexedAndOverlappingRanges() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.range(new BigDecimal(100), true, new BigDecimal(100), true), "exactly hundred");
+        ranges.put(Range.closedOpen(BigDecimal.ZERO, BigDecimal.TEN), "low");
+        ranges.put(Range.closed(BigDecimal.TEN, BigDecimal.TEN), "ten");
+        ranges.put(Range.open(BigDecimal.TEN, new BigDecimal(100)), "middle");
+        ranges.put(Range.atLeast(new BigDecimal(50)), "high");
+        ScaleTable table = new ScaleTable(ranges, "%label%", null);
+
+        Assert.assertEquals("low", table.lookup(BigDecimal.ZERO));
+        Assert.assertEquals("low", table.lookup(new BigDecimal("9.99")));
+        Assert.assertEquals("ten", table.lookup(BigDecimal.TEN));
+        Assert.assertEquals("middle", table.lookup(new BigDecimal(60)));
+        Assert.assertEquals("exactly hundred", table.lookup(new BigDecimal(100)));
+        Assert.assertEquals("high", table.lookup(new BigDecimal(101)));
+        Assert.assertNull(table.lookup(new BigDecimal(-1)));
+    }
+
+    @Test
+    public void testLookupWithoutMatch() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closedOpen(BigDecimal.ZERO, BigDecimal.TEN), "low");
+        ranges.put(Range.closed(new BigDecimal(20), new BigDecimal(30)), "high");
+        ScaleTable table = new ScaleTable(ranges, "%label%", null);
+
+        Assert.assertNull(table.lookup(new BigDecimal(15)));
+        Assert.assertNull(table.lookup(new BigDecimal(-1)));
+        Assert.assertNull(table.lookup(new BigDecimal(31)));
+    }
 }
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Evaluates simple XPath location paths on a StAX stream, so that the document does not have to be materialized into
+ * a DOM. Supported are paths of unprefixed element names like <code>/a/b/c</code> or <code>//b/c</code>, optionally
+ * followed by an attribute step <code>/@attr</code> or a <code>/text()</code> step. The result is the string value of
+ * the first matching node in document order, like the XPath <code>string()</code> function returns it. The whole
+ * document is still read, so that malformed documents fail like they do with DOM.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class StreamingXPathEvaluator {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z_][\\w.\\-]*");
+    private static final String TEXT_STEP = "text()";
+
+    private final List<String> elementSteps;
+    private final boolean descendant;
+    private final @Nullable String attribute;
+    private final boolean text;
+
+    private StreamingXPathEvaluator(List<String> elementSteps, boolean descendant, @Nullable String attribute,
+            boolean text) {
+        this.elementSteps = elementSteps;
+        this.descendant = descendant;
+        this.attribute = attribute;
+        this.text = text;
+    }
+
+    /**
+     * Creates an evaluator for the given expression.
+     *
+     * @param xpathExpression the XPath expression
+     * @return the evaluator or null if the expression is not a simple location path
+     */
+    static @Nullable StreamingXPathEvaluator forExpression(String xpathExpression) {
+        boolean descendant = xpathExpression.startsWith("//");
+        String path;
+        if (descendant) {
+            path = xpathExpression.substring(2);
+        } else if (xpathExpression.startsWith("/")) {
+            path = xpathExpression.substring(1);
+        } else {
+            return null;
+        }
+
+        List<String> steps = new ArrayList<>(Arrays.asList(path.split("/", -1)));
+        String attribute = null;
+        boolean text = false;
+        String lastStep = steps.get(steps.size() - 1);
+        if (lastStep.startsWith("@") && NAME_PATTERN.matcher(lastStep.substring(1)).matches()) {
+            attribute = lastStep.substring(1);
+            steps.remove(steps.size() - 1);
+        } else if (TEXT_STEP.equals(lastStep)) {
+            text = true;
+            steps.remove(steps.size() - 1);
+        }
+        if (steps.isEmpty()) {
+            return null;
+        }
+        for (String step : steps) {
+            if (!NAME_PATTERN.matcher(step).matches()) {
+                return null;
+            }
+        }
+        return new StreamingXPathEvaluator(steps, descendant, attribute, text);
+    }
+
+    /**
+     * Evaluates the path on the given document.
+     *
+     * @param factory the factory to create the stream reader with
+     * @param source the XML document
+     * @return the string value of the first matching node, an empty string if no node matches or null if the
+     *         document has a DTD, which may define entities or default attributes, so it has to be evaluated on a DOM
+     * @throws XMLStreamException if the document is not well-formed
+     */
+    @Nullable
+    String evaluate(XMLInputFactory factory, String source) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(source));
+        try {
+            // local names of the open elements, null for elements in a namespace as they can never match
+            List<@Nullable String> openElements = new ArrayList<>();
+            @Nullable
+            StringBuilder value = null;
+            int valueDepth = 0;
+            @Nullable
+            String result = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.DTD || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                    return null;
+                }
+                if (result != null) {
+                    // keep reading to detect malformed documents
+                    continue;
+                }
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String namespace = reader.getNamespaceURI();
+                        openElements.add(namespace == null || namespace.isEmpty() ? reader.getLocalName() : null);
+                        if (value != null || text || !matches(openElements)) {
+                            break;
+                        }
+                        String attributeName = attribute;
+                        if (attributeName == null) {
+                            value = new StringBuilder();
+                            valueDepth = openElements.size();
+                        } else {
+                            result = getUnqualifiedAttributeValue(reader, attributeName);
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (value != null && openElements.size() == valueDepth) {
+                            result = value.toString();
+                        }
+                        openElements.remove(openElements.size() - 1);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (value != null) {
+                            value.append(reader.getText());
+                        } else if (text && matches(openElements)) {
+                            result = reader.getText();
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result != null ? result : "";
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the value of the attribute with the given name and no namespace, like the XPath step <code>@name</code>
+     * selects it.
+     */
+    private static @Nullable String getUnqualifiedAttributeValue(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if ((namespace == null || namespace.isEmpty()) && name.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(List<@Nullable String> openElements) {
+        int offset = openElements.size() - elementSteps.size();
+        if (offset < 0 || (!descendant && offset != 0)) {
+            return false;
+        }
+        for (int i = 0; i < elementSteps.size(); i++) {
+            if (!elementSteps.get(i).equals(openElements.get(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
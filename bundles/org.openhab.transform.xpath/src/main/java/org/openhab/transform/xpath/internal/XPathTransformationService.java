@@ -13,9 +13,16 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
@@ -41,8 +48,44 @@ import org.xml.sax.InputSource;
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /** maximum number of expressions kept compiled by each thread and as streaming evaluators */
+    private static final int MAX_CACHED_EXPRESSIONS = 64;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    /*
+     * Neither document builders nor compiled XPath expressions are thread-safe, so they are cached per thread. This
+     * avoids the service loader lookups of the factories on every transformation.
+     */
+    private final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(() -> {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        try {
+            return domFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ThreadLocal<XPath> xpaths = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    private final ThreadLocal<Map<String, XPathExpression>> compiledExpressions = ThreadLocal
+            .withInitial(() -> createExpressionCache());
+
+    /** evaluators of the expressions that are simple enough to be evaluated on a stream, empty if they are not */
+    private final Map<String, Optional<StreamingXPathEvaluator>> streamingEvaluators = Collections
+            .synchronizedMap(createExpressionCache());
+
+    private final XMLInputFactory inputFactory;
+
+    public XPathTransformationService() {
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,22 +94,35 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
+        Optional<StreamingXPathEvaluator> streamingEvaluator = streamingEvaluators.computeIfAbsent(xpathExpression,
+                expression -> Optional.ofNullable(StreamingXPathEvaluator.forExpression(expression)));
+        if (streamingEvaluator.isPresent()) {
+            try {
+                String transformationResult = streamingEvaluator.get().evaluate(inputFactory, source);
+                if (transformationResult != null) {
+                    logger.debug("transformation resulted in '{}'", transformationResult);
+                    return transformationResult;
+                }
+            } catch (XMLStreamException e) {
+                throw new TransformationException("transformation throws exceptions", e);
+            }
+        }
+
         StringReader stringReader = null;
+        DocumentBuilder builder = documentBuilders.get();
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
             inputSource.setEncoding("UTF-8");
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = compiledExpressions.get().get(xpathExpression);
+            if (expr == null) {
+                expr = xpaths.get().compile(xpathExpression);
+                compiledExpressions.get().put(xpathExpression, expr);
+            }
 
             String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
 
@@ -76,10 +132,26 @@ public class XPathTransformationService implements TransformationService {
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
         } finally {
+            builder.reset();
             if (stringReader != null) {
                 stringReader.close();
             }
         }
     }
 
+    /**
+     * Creates a map keyed by XPath expression that drops the expression used least recently once more than
+     * {@link #MAX_CACHED_EXPRESSIONS} are stored.
+     */
+    private static <V> Map<String, V> createExpressionCache() {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, V> eldest) {
+                return size() > MAX_CACHED_EXPRESSIONS;
+            }
+        };
+    }
+
 }
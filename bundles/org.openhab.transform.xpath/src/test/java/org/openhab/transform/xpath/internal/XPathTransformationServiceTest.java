@@ -41,4 +41,48 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        assertEquals("8", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+        assertEquals("Di.", processor.transform("//forecast_conditions/day_of_week/@data", source));
+        assertEquals("", processor.transform("/xml_api_reply/weather/unknown/@data", source));
+    }
+
+    @Test
+    public void testTransformBySimplePath_text() throws TransformationException {
+        String xml = "<?xml version=\"1.0\"?><PTZStatus><AbsoluteHigh><elevation>0</elevation>"
+                + "<azimuth>450</azimuth></AbsoluteHigh></PTZStatus>";
+
+        assertEquals("450", processor.transform("/PTZStatus/AbsoluteHigh/azimuth/text()", xml));
+        assertEquals("0450", processor.transform("/PTZStatus/AbsoluteHigh", xml));
+        assertEquals("450", processor.transform("//azimuth", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePath_namespace() throws TransformationException {
+        String xml = "<?xml version=\"1.0\"?><PTZStatus xmlns=\"http://www.hikvision.com/ver20/XMLSchema\">"
+                + "<azimuth>450</azimuth></PTZStatus>";
+
+        assertEquals("", processor.transform("/PTZStatus/azimuth", xml));
+        assertEquals("450", processor.transform("/*[local-name()='PTZStatus']/*[local-name()='azimuth']", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePath_namespacedAttribute() throws TransformationException {
+        String xml = "<?xml version=\"1.0\"?><a xmlns:ns=\"urn:test\"><b ns:attr=\"1\"/><b attr=\"2\"/></a>";
+
+        assertEquals("2", processor.transform("/a/b/@attr", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePath_dtd() throws TransformationException {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE a [<!ENTITY v \"42\">]><a><b>&v;</b></a>";
+
+        assertEquals("42", processor.transform("/a/b", xml));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformBySimplePath_malformedAfterMatch() throws TransformationException {
+        processor.transform("/a/b/@attr", "<?xml version=\"1.0\"?><a><b attr=\"1\"/><c></a>");
+    }
 }
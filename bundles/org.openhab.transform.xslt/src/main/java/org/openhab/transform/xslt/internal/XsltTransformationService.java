@@ -15,9 +15,15 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -27,7 +33,9 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +51,28 @@ public class XsltTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    /** compiled stylesheets by file name, removed by the {@link XsltTransformationWatcher} on file changes */
+    private final Map<String, Templates> templatesCache = new ConcurrentHashMap<>();
+
+    private @Nullable XsltTransformationWatcher watcher;
+
+    @Activate
+    protected void activate() {
+        XsltTransformationWatcher watcher = new XsltTransformationWatcher(this::removeFromCache);
+        watcher.activate();
+        this.watcher = watcher;
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        XsltTransformationWatcher watcher = this.watcher;
+        if (watcher != null) {
+            watcher.deactivate();
+            this.watcher = null;
+        }
+        templatesCache.clear();
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,28 +90,16 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        Templates templates = getTemplates(filename);
 
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
-
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
-
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            // transformers are not thread-safe, but cheap to create from the compiled stylesheet
+            Transformer transformer = templates.newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -93,4 +111,53 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    /**
+     * Returns the compiled stylesheet of the given file, compiling and caching it if it is not cached yet.
+     */
+    private Templates getTemplates(String filename) throws TransformationException {
+        Templates templates = templatesCache.get(filename);
+        if (templates != null) {
+            return templates;
+        }
+
+        Source xsl = null;
+
+        try {
+            String path = ConfigConstants.getConfigFolder() + File.separator
+                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
+            xsl = new StreamSource(new File(path));
+        } catch (Exception e) {
+            String message = "opening file '" + filename + "' throws exception";
+
+            logger.error("{}", message, e);
+            throw new TransformationException(message, e);
+        }
+
+        try {
+            templates = TransformerFactory.newInstance().newTemplates(xsl);
+        } catch (TransformerConfigurationException e) {
+            logger.error("compiling stylesheet '{}' throws exception", filename, e);
+            throw new TransformationException("compiling stylesheet throws exception", e);
+        }
+        logger.debug("Putting compiled stylesheet {} to cache.", filename);
+        templatesCache.put(filename, templates);
+        return templates;
+    }
+
+    /**
+     * Removes the compiled stylesheets of the changed file from the cache. Watch events of files in subfolders may
+     * only carry the file name, so all cached files with that name are removed.
+     *
+     * @param path the path of the changed file
+     */
+    private void removeFromCache(Path path) {
+        Path changedFile = path.getFileName();
+        templatesCache.keySet().removeIf(filename -> {
+            boolean changed = changedFile != null && changedFile.equals(Paths.get(filename).getFileName());
+            if (changed) {
+                logger.debug("Removing stylesheet {} from cache.", filename);
+            }
+            return changed;
+        });
+    }
 }
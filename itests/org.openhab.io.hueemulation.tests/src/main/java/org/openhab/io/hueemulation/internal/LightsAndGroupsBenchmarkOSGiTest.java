@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.test.java.JavaOSGiTest;
+import org.eclipse.smarthome.test.storage.VolatileStorageService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
+import org.openhab.io.hueemulation.internal.rest.LightsAndGroups;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.service.cm.Configuration;
+import org.osgi.service.cm.ConfigurationAdmin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how long the hue emulation takes to synchronize with an item registry of 5000 exposed items,
+ * like on startup of a large installation. Each step has to finish within a generous time limit.
+ *
+ * @author agent - Initial contribution
+ */
+public class LightsAndGroupsBenchmarkOSGiTest extends JavaOSGiTest {
+    private static final String JUPNP_PID = "org.jupnp";
+    private static final int ITEM_COUNT = 5000;
+    private static final long STEP_LIMIT_MILLIS = 30000;
+
+    private final Logger logger = LoggerFactory.getLogger(LightsAndGroupsBenchmarkOSGiTest.class);
+
+    private HueEmulationService hueService;
+    private ItemRegistry itemRegistry;
+    private VolatileStorageService volatileStorageService = new VolatileStorageService();
+    private final List<String> itemNames = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException, InvalidSyntaxException {
+        registerService(volatileStorageService);
+
+        itemRegistry = getService(ItemRegistry.class, ItemRegistry.class);
+        assertThat(itemRegistry, notNullValue());
+
+        ConfigurationAdmin configurationAdmin = getService(ConfigurationAdmin.class, ConfigurationAdmin.class);
+        assertThat(configurationAdmin, notNullValue());
+
+        Dictionary<String, Object> jupnpConfig = new Hashtable<>();
+        jupnpConfig.put("threadPoolSize", 5);
+        Configuration configuration = configurationAdmin.getConfiguration(JUPNP_PID, null);
+        configuration.update(jupnpConfig);
+
+        waitForAssert(() -> {
+            hueService = getService(HueEmulationService.class, HueEmulationService.class);
+            assertThat(hueService, notNullValue());
+        }, 3000, 200);
+    }
+
+    @After
+    public void tearDown() {
+        for (String itemName : itemNames) {
+            itemRegistry.remove(itemName);
+        }
+        unregisterService(volatileStorageService);
+    }
+
+    private void assertAllLightsInGroup0(int lightCount) {
+        List<String> group0 = hueService.cs.ds.groups.get("0").lightsSupplier.get();
+        assertThat(group0.size(), is(lightCount));
+        for (String itemName : itemNames) {
+            assertThat(group0, hasItem(hueService.cs.mapItemUIDtoHueID(itemRegistry.get(itemName))));
+        }
+    }
+
+    private void assertWithinLimit(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        assertTrue("Step took " + millis + " ms", millis < STEP_LIMIT_MILLIS);
+    }
+
+    @Test(timeout = 120000)
+    public void addAndRemoveManyItems() throws Exception {
+        final int lightsBefore = hueService.cs.ds.lights.size();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITEM_COUNT; ++i) {
+            SwitchItem item = new SwitchItem("benchmarkSwitch" + i);
+            item.addTag("Switchable");
+            itemRegistry.add(item);
+            itemNames.add(item.getName());
+        }
+        waitFor(() -> hueService.cs.ds.lights.size() == lightsBefore + ITEM_COUNT, STEP_LIMIT_MILLIS, 10);
+        long added = System.nanoTime() - start;
+        assertThat(hueService.cs.ds.lights.size(), is(lightsBefore + ITEM_COUNT));
+        assertWithinLimit(added);
+
+        // Enumerate all items again, like on activation
+        Method activate = LightsAndGroups.class.getDeclaredMethod("activate");
+        activate.setAccessible(true);
+        start = System.nanoTime();
+        activate.invoke(hueService.lightItems);
+        long enumerated = System.nanoTime() - start;
+        assertThat(hueService.cs.ds.lights.size(), is(lightsBefore + ITEM_COUNT));
+        assertWithinLimit(enumerated);
+
+        // First request serializes all lights, the second one uses the cached JSON
+        start = System.nanoTime();
+        String json = HueLightEntry.toJson(hueService.cs.ds.lights, hueService.cs.gson);
+        long firstSerialization = System.nanoTime() - start;
+        start = System.nanoTime();
+        assertThat(HueLightEntry.toJson(hueService.cs.ds.lights, hueService.cs.gson), is(json));
+        long cachedSerialization = System.nanoTime() - start;
+        assertWithinLimit(firstSerialization);
+
+        // Group 0 contains all lights
+        assertAllLightsInGroup0(lightsBefore + ITEM_COUNT);
+
+        start = System.nanoTime();
+        for (String itemName : itemNames) {
+            itemRegistry.remove(itemName);
+        }
+        itemNames.clear();
+        waitFor(() -> hueService.cs.ds.lights.size() == lightsBefore, STEP_LIMIT_MILLIS, 10);
+        long removed = System.nanoTime() - start;
+        assertThat(hueService.cs.ds.lights.size(), is(lightsBefore));
+        assertThat(hueService.cs.ds.groups.get("0").lightsSupplier.get().size(), is(lightsBefore));
+        assertWithinLimit(removed);
+
+        logger.info(
+                "{} items: added in {} ms, enumerated in {} ms, removed in {} ms, serialized in {} ms (cached: {} ms)",
+                ITEM_COUNT, added / 1000000, enumerated / 1000000, removed / 1000000, firstSerialization / 1000000,
+                cachedSerialization / 1000000);
+    }
+}